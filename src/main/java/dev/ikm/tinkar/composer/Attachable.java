@@ -18,6 +18,8 @@
 import dev.ikm.tinkar.entity.StampEntity;
 import dev.ikm.tinkar.entity.transaction.Transaction;
 import dev.ikm.tinkar.terms.EntityProxy;
+import dev.ikm.tinkar.terms.EntityProxy.Pattern;
+import org.eclipse.collections.api.list.ImmutableList;
 
 import java.util.function.Consumer;
 
@@ -27,6 +29,10 @@ protected Attachable() {}
 
     private Transaction sessionTransaction;
     private StampEntity<?> sessionStampEntity;
+    private Write.Sink sessionSink = Write.Sink.ENTITY_SERVICE;
+    private FieldValueInterner sessionFieldValueInterner;
+    private StatedNavigationIndex sessionStatedNavigationIndex;
+    private FieldValueValidator sessionFieldValueValidator;
     private EntityProxy reference;
 
     protected void setSessionTransaction(Transaction sessionTransaction) {
@@ -45,10 +51,70 @@ protected StampEntity<?> getSessionStampEntity() {
         return sessionStampEntity;
     }
 
+    protected void setSessionSink(Write.Sink sessionSink) {
+        this.sessionSink = sessionSink;
+    }
+
+    protected Write.Sink getSessionSink() {
+        return sessionSink;
+    }
+
+    void setSessionFieldValueInterner(FieldValueInterner sessionFieldValueInterner) {
+        this.sessionFieldValueInterner = sessionFieldValueInterner;
+    }
+
+    /**
+     * Provides the instance of a String field value shared across the Session, if the Session interns field values.
+     * Only low-cardinality values (e.g., codes drawn from a small set) benefit, so free text should not be interned.
+     * @param value the field value
+     * @return the shared instance equal to the value, or the value itself
+     * @see Session#internFieldValues()
+     */
+    protected String internFieldValue(String value) {
+        return sessionFieldValueInterner == null ? value : sessionFieldValueInterner.intern(value);
+    }
+
+    void setSessionStatedNavigationIndex(StatedNavigationIndex sessionStatedNavigationIndex) {
+        this.sessionStatedNavigationIndex = sessionStatedNavigationIndex;
+    }
+
+    /**
+     * Records stated parents of a Concept, if the Session derives StatedNavigation Semantics.
+     * @param concept the child Concept
+     * @param parentNids the nids of the parent Concepts
+     * @see Session#deriveStatedNavigation()
+     */
+    protected void indexStatedParents(EntityProxy concept, int[] parentNids) {
+        if (sessionStatedNavigationIndex != null && parentNids.length > 0) {
+            sessionStatedNavigationIndex.addParents(concept.nid(), parentNids);
+        }
+    }
+
+    void setSessionFieldValueValidator(FieldValueValidator sessionFieldValueValidator) {
+        this.sessionFieldValueValidator = sessionFieldValueValidator;
+    }
+
+    /**
+     * Checks field values against the field definitions of their Pattern, if the Composer validates field values.
+     * @param pattern the Pattern of the Semantic
+     * @param fieldValues the field values of the Semantic
+     * @throws IllegalArgumentException if the field values do not match the Pattern
+     * @see Composer#validateFieldValues()
+     */
+    protected void validateFieldValues(Pattern pattern, ImmutableList<Object> fieldValues) {
+        if (sessionFieldValueValidator != null) {
+            sessionFieldValueValidator.validate(pattern, fieldValues);
+        }
+    }
+
     protected void setReference(EntityProxy reference) {
         this.reference = reference;
     }
 
+    boolean hasReference() {
+        return reference != null;
+    }
+
     protected EntityProxy getReference() {
         if (reference == null) {
             throw new IllegalStateException("Reference not set");
@@ -66,6 +132,10 @@ private void initializeAttachable(Attachable childAttachable) {
         childAttachable.setReference(this.asReferenceComponent());
         childAttachable.setSessionTransaction(sessionTransaction);
         childAttachable.setSessionStampEntity(sessionStampEntity);
+        childAttachable.setSessionSink(sessionSink);
+        childAttachable.setSessionFieldValueInterner(sessionFieldValueInterner);
+        childAttachable.setSessionStatedNavigationIndex(sessionStatedNavigationIndex);
+        childAttachable.setSessionFieldValueValidator(sessionFieldValueValidator);
     }
 
     /**
@@ -81,20 +151,23 @@ public Attachable attach(SemanticTemplate semanticTemplate) {
 
     /**
      * Creates a Semantic which references this Component using a consumer to configure the template.
+     * The template is created by the factory {@link SemanticTemplates} provides for its class. Templates that can be
+     * reset are reused once written, so the consumer must not keep a reference to the template it is given.
      * @param type the SemanticTemplate subclass to instantiate
      * @param consumer configures the template before it is written
      * @return this Component as an Attachable
      * @param <T> the SemanticTemplate type
      */
     public <T extends SemanticTemplate> Attachable attach(Class<T> type, Consumer<T> consumer) {
+        T template = SemanticTemplates.acquire(type);
         try {
-            T template = type.getDeclaredConstructor().newInstance();
             initializeAttachable(template);
             consumer.accept(template);
             template.validateAndWrite();
-            return this;
-        } catch (ReflectiveOperationException e) {
-            throw new RuntimeException("Failed to instantiate " + type.getSimpleName(), e);
+        } finally {
+            // Reset even if the template failed validation, so a half-populated template is never reused
+            SemanticTemplates.release(template);
         }
+        return this;
     }
 }
@@ -0,0 +1,180 @@
+/*
+ * Copyright © 2024 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.tinkar.composer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+/**
+ * Composes the SessionConsumers published to it in a Session, requesting them from upstream in windows sized by how
+ * well the store is keeping up. After each window is composed:
+ * <ul>
+ *     <li>if the Session Transaction holds at least {@link #maxPendingComponents(int)} Components, they are committed
+ *     before more SessionConsumers are requested</li>
+ *     <li>if the average time taken to compose a SessionConsumer is above {@link #maxComposeLatency(Duration)}, the
+ *     next window is halved, otherwise it is doubled up to {@link #maxRequest(int)}</li>
+ * </ul>
+ * Nothing is requested while a window is being composed or committed, so a publisher such as a
+ * {@link java.util.concurrent.SubmissionPublisher} blocks once its buffer is full instead of growing the heap.
+ * <br /><br />
+ * SessionConsumers are composed on the thread delivering them, in the order they are published. A failure thrown by
+ * a SessionConsumer cancels the subscription and completes {@link #completion()} exceptionally.
+ * @see Session#subscriber()
+ */
+public class ComposeSubscriber implements Flow.Subscriber<SessionConsumer> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ComposeSubscriber.class);
+    public static final int DEFAULT_MAX_PENDING_COMPONENTS = 100_000;
+    public static final Duration DEFAULT_MAX_COMPOSE_LATENCY = Duration.ofMillis(5);
+    public static final int DEFAULT_MAX_REQUEST = 1024;
+    private static final int INITIAL_REQUEST = 16;
+
+    private final Session session;
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+    private int maxPendingComponents = DEFAULT_MAX_PENDING_COMPONENTS;
+    private long maxComposeLatencyNanos = DEFAULT_MAX_COMPOSE_LATENCY.toNanos();
+    private int maxRequest = DEFAULT_MAX_REQUEST;
+    // Subscriber signals are serialized by the publisher, so the state below is only accessed by one thread at a time
+    private Flow.Subscription subscription;
+    private int window;
+    private int outstanding;
+    private long windowComposeNanos;
+    private long composedCount;
+
+    ComposeSubscriber(Session session) {
+        this.session = session;
+    }
+
+    /**
+     * Sets the number of Components the Session Transaction may hold before they are committed, which defaults to
+     * {@link #DEFAULT_MAX_PENDING_COMPONENTS}.
+     * @param maxPendingComponents the number of pending Components that triggers a commit between windows
+     * @return this ComposeSubscriber
+     */
+    public ComposeSubscriber maxPendingComponents(int maxPendingComponents) {
+        if (maxPendingComponents < 1) {
+            throw new IllegalArgumentException("Max pending components must be positive, but was " + maxPendingComponents);
+        }
+        this.maxPendingComponents = maxPendingComponents;
+        return this;
+    }
+
+    /**
+     * Sets the average time a SessionConsumer may take to compose before the request window is reduced, which
+     * defaults to {@link #DEFAULT_MAX_COMPOSE_LATENCY}.
+     * @param maxComposeLatency the average compose time above which fewer SessionConsumers are requested
+     * @return this ComposeSubscriber
+     */
+    public ComposeSubscriber maxComposeLatency(Duration maxComposeLatency) {
+        if (maxComposeLatency.isNegative() || maxComposeLatency.isZero()) {
+            throw new IllegalArgumentException("Max compose latency must be positive, but was " + maxComposeLatency);
+        }
+        this.maxComposeLatencyNanos = maxComposeLatency.toNanos();
+        return this;
+    }
+
+    /**
+     * Sets the largest number of SessionConsumers requested at once, which defaults to {@link #DEFAULT_MAX_REQUEST}.
+     * @param maxRequest the largest request window
+     * @return this ComposeSubscriber
+     */
+    public ComposeSubscriber maxRequest(int maxRequest) {
+        if (maxRequest < 1) {
+            throw new IllegalArgumentException("Max request must be positive, but was " + maxRequest);
+        }
+        this.maxRequest = maxRequest;
+        return this;
+    }
+
+    /**
+     * Provides a CompletableFuture completed once the publisher completes and every SessionConsumer received has been
+     * composed, or completed exceptionally with the first failure. The Session is not committed by this subscriber.
+     */
+    public CompletableFuture<Void> completion() {
+        return completion;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (this.subscription != null) {
+            subscription.cancel();
+            return;
+        }
+        this.subscription = subscription;
+        window = Math.min(INITIAL_REQUEST, maxRequest);
+        request();
+    }
+
+    @Override
+    public void onNext(SessionConsumer sessionConsumer) {
+        if (completion.isDone()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            session.composeWithinTransaction(sessionConsumer);
+        } catch (Throwable t) {
+            subscription.cancel();
+            completion.completeExceptionally(t);
+            return;
+        }
+        windowComposeNanos += System.nanoTime() - start;
+        composedCount++;
+        if (--outstanding == 0) {
+            adjustWindow();
+            request();
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        completion.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        LOG.info("Composed {} SessionConsumers from publisher", composedCount);
+        completion.complete(null);
+    }
+
+    private void adjustWindow() {
+        long averageComposeNanos = windowComposeNanos / window;
+        windowComposeNanos = 0;
+        if (averageComposeNanos > maxComposeLatencyNanos) {
+            window = Math.max(1, window / 2);
+        } else {
+            window = (int) Math.min(maxRequest, window * 2L);
+        }
+    }
+
+    private void request() {
+        if (session.pendingComponentCount() >= maxPendingComponents) {
+            try {
+                session.flush();
+            } catch (Throwable t) {
+                subscription.cancel();
+                completion.completeExceptionally(t);
+                return;
+            }
+        }
+        outstanding = window;
+        subscription.request(window);
+    }
+}
@@ -15,26 +15,97 @@
  */
 package dev.ikm.tinkar.composer;
 
-import dev.ikm.tinkar.common.util.uuid.UuidT5Generator;
-import dev.ikm.tinkar.entity.StampEntity;
-import dev.ikm.tinkar.entity.transaction.Transaction;
 import dev.ikm.tinkar.terms.EntityProxy.Concept;
 import dev.ikm.tinkar.terms.State;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
-import java.util.UUID;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 
+/**
+ * Opens and manages the Sessions used to compose Components.
+ * <br /><br />
+ * A Composer may be shared between threads. Sessions are held in a {@link ConcurrentHashMap}, so opening, committing,
+ * and cancelling Sessions only contends with other threads working on Sessions in the same hash bin.
+ */
 public class Composer {
-    private final Map<UUID, Session> composerSessionCache = new HashMap<>();
-    private StampEntity<?> stampEntity;
+    private static final Executor VIRTUAL_THREAD_EXECUTOR = command -> Thread.ofVirtual().start(command);
+    private final ConcurrentHashMap<SessionKey, Session> composerSessionCache = new ConcurrentHashMap<>();
     private final String name;
+    private final Executor commitExecutor;
+    private volatile Write.Sink sessionSink = Write.Sink.ENTITY_SERVICE;
+    private volatile FieldValueValidator fieldValueValidator;
+    private volatile IngestJournal journal;
 
     public Composer(String name) {
+        this(name, VIRTUAL_THREAD_EXECUTOR);
+    }
+
+    /**
+     * Creates a Composer that commits Sessions asynchronously using the Executor provided.
+     * <br />
+     * Supplying {@code Runnable::run} commits Sessions one at a time on the calling thread.
+     * @param name the name given to the Transactions of Sessions opened by this Composer
+     * @param commitExecutor runs {@link #commitSessionAsync(Session)} and {@link #commitAllSessionsAsync()}
+     */
+    public Composer(String name, Executor commitExecutor) {
         this.name = name;
+        this.commitExecutor = commitExecutor;
+    }
+
+    /**
+     * Coalesces the Versions written by Sessions opened after this call. Instead of each Version being merged into the
+     * store as it is composed, Versions are held by the Composer and merged in memory by nid. The merged Chronologies
+     * are written when any of these Sessions is flushed, committed, or cancelled, so the store is updated once per
+     * Component rather than once per Version.
+     * <br /><br />
+     * Example use case: loading several releases of a terminology, where each release is a Session with its own
+     * timestamp and most Components have a Version in each release.
+     * <pre>{@code
+     *    Composer composer = new Composer("name").coalesceVersions();
+     *    releases.forEach(release -> composer.open(status, release.time(), author, module, path)
+     *              .compose((ConceptAssembler conceptAssembler) -> conceptAssembler.concept(release.concept())));
+     *    composer.commitAllSessions();
+     * }</pre>
+     * Components are not in the store until a Session is flushed or committed, so they should not be read back
+     * through the EntityService before then.
+     * @return this Composer for further method chaining
+     */
+    public Composer coalesceVersions() {
+        if (!(sessionSink instanceof VersionCoalescer)) {
+            sessionSink = new VersionCoalescer();
+        }
+        return this;
+    }
+
+    /**
+     * Validates the field values of Semantics composed in Sessions opened after this call. The field count and datatypes
+     * of each Pattern are read once and cached by this Composer, and every Semantic composed with a SemanticAssembler,
+     * SemanticTemplate, or {@link Session#composeSemantics} is checked against them before it is written. Field values
+     * of the wrong count or type throw an IllegalArgumentException from the compose call.
+     * <br /><br />
+     * Semantics of Patterns that are not yet in the store are not checked.
+     * @return this Composer for further method chaining
+     */
+    public Composer validateFieldValues() {
+        if (fieldValueValidator == null) {
+            fieldValueValidator = new FieldValueValidator();
+        }
+        return this;
+    }
+
+    /**
+     * Records Sessions committed with {@link #commitSession(Session, String, long, long)} in the journal provided, so that a
+     * restarted ingest can skip the input they covered.
+     * @param journal the IngestJournal receiving an entry after each such commit
+     * @return this Composer for further method chaining
+     * @see IngestJournal
+     */
+    public Composer journal(IngestJournal journal) {
+        this.journal = journal;
+        return this;
     }
 
     /**
@@ -57,13 +128,7 @@ public Composer(String name) {
      * @see State
      */
     public Session open(State status, long time, Concept author, Concept module, Concept path) {
-        UUID sessionKey = keyValue(status, time, author, module, path);
-        composerSessionCache.computeIfAbsent(sessionKey, (key) -> {
-            Transaction transaction = new Transaction(name);
-            this.stampEntity = transaction.getStamp(status, time, author.publicId(), module.publicId(), path.publicId());
-            return new Session(transaction, stampEntity, sessionKey);
-        });
-        return composerSessionCache.get(sessionKey);
+        return open(new SessionKey(status, time, author.nid(), module.nid(), path.nid()), status, time, author, module, path);
     }
 
     /**
@@ -85,13 +150,16 @@ public Session open(State status, long time, Concept author, Concept module, Con
      * @see State
      */
     public Session open(State status, Concept author, Concept module, Concept path) {
-        UUID sessionKey = keyValue(status, Long.MAX_VALUE, author, module, path);
-        composerSessionCache.computeIfAbsent(sessionKey, (key) -> {
-            Transaction transaction = new Transaction(name);
-            this.stampEntity = transaction.getStamp(status, author, module, path);
-            return new Session(transaction, stampEntity, sessionKey);
-        });
-        return composerSessionCache.get(sessionKey);
+        return open(new SessionKey(status, Long.MAX_VALUE, author.nid(), module.nid(), path.nid()), status, Long.MAX_VALUE, author, module, path);
+    }
+
+    private Session open(SessionKey sessionKey, State status, long time, Concept author, Concept module, Concept path) {
+        // Plain lookup first so that opening an existing Session does not allocate the mapping function
+        Session session = composerSessionCache.get(sessionKey);
+        if (session != null) {
+            return session;
+        }
+        return composerSessionCache.computeIfAbsent(sessionKey, (key) -> new Session(name, status, time, author, module, path, key, sessionSink, fieldValueValidator));
     }
 
     /**
@@ -102,18 +170,75 @@ public Session open(State status, Concept author, Concept module, Concept path)
      * @return boolean representing whether the Session was committed. A Composer can only close a Session it opened.
      */
     public boolean commitSession(Session session) {
-        return commitSession(session.getId());
+        return closeSession(session, true);
     }
 
     /**
-     * Commits all Sessions opened by this Composer.
+     * Commits a Session opened by this Composer and records the commit in the journal of this Composer, covering the
+     * input from the start offset up to the end offset provided. The entry is written after the Session has committed.
+     * @param session
+     * @param source the name of the input the Session was composed from
+     * @param startOffset the offset in the input of the first input the Session covered
+     * @param endOffset the offset in the input following the last input the Session covered
+     * @return boolean representing whether the Session was committed. A Composer can only close a Session it opened.
+     * @throws IllegalStateException if no journal has been set with {@link #journal(IngestJournal)}
+     */
+    public boolean commitSession(Session session, String source, long startOffset, long endOffset) {
+        IngestJournal ingestJournal = this.journal;
+        if (ingestJournal == null) {
+            throw new IllegalStateException("Composer " + name + " has no IngestJournal");
+        }
+        if (!closeSession(session, true)) {
+            return false;
+        }
+        ingestJournal.record(session, source, startOffset, endOffset);
+        return true;
+    }
+
+    /**
+     * Commits a Session opened by this Composer using the commit Executor of this Composer.
+     * <br />
+     * The Session is closed immediately, so it is no longer returned by {@code open}. Composition in other Sessions
+     * can continue while the commit runs.
+     * @param session
+     * @return CompletableFuture completed with whether the Session was committed. A Composer can only close a Session it opened.
+     */
+    public CompletableFuture<Boolean> commitSessionAsync(Session session) {
+        if (!composerSessionCache.remove(session.getKey(), session)) {
+            return CompletableFuture.completedFuture(false);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            session.commit();
+            return true;
+        }, commitExecutor);
+    }
+
+    /**
+     * Commits all Sessions opened by this Composer concurrently using the commit Executor of this Composer.
      * <br />
      * {@link Session#commit()} <strong>commits</strong> the Components and STAMPs in the session transaction.
+     * With a coalescing Composer, the flushes of concurrently committing Sessions are serialized by the Composer's
+     * shared Sink, while their Transactions commit concurrently.
+     * @return CompletableFuture completed when every Session has been committed
+     * @see #coalesceVersions()
+     */
+    public CompletableFuture<Void> commitAllSessionsAsync() {
+        List<CompletableFuture<Boolean>> commits = new ArrayList<>();
+        for (Session session : composerSessionCache.values()) {
+            commits.add(commitSessionAsync(session));
+        }
+        return CompletableFuture.allOf(commits.toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * Commits all Sessions opened by this Composer, one at a time on the calling thread.
+     * <br />
+     * {@link Session#commit()} <strong>commits</strong> the Components and STAMPs in the session transaction.
+     * @see #commitAllSessionsAsync()
      */
     public void commitAllSessions() {
-        Set<UUID> keySet = new HashSet<>(composerSessionCache.keySet());
-        for (UUID key : keySet) {
-            commitSession(key);
+        for (Session session : composerSessionCache.values()) {
+            closeSession(session, true);
         }
     }
 
@@ -125,7 +250,7 @@ public void commitAllSessions() {
      * @return boolean representing whether the Session was cancelled. A Composer can only close a Session it opened.
      */
     public boolean cancelSession(Session session) {
-        return cancelSession(session.getId());
+        return closeSession(session, false);
     }
 
     /**
@@ -134,35 +259,23 @@ public boolean cancelSession(Session session) {
      * {@link Session#cancel()} <strong>cancels</strong> the Components and STAMPs in the session transaction.
      */
     public void cancelAllSessions() {
-        composerSessionCache.forEach((key, value) -> {
-            value.cancel();
-        });
-    }
-
-    private boolean commitSession(UUID sessionKey) {
-        AtomicBoolean isClosed = new AtomicBoolean(false);
-        composerSessionCache.computeIfPresent(sessionKey, (key, value) -> {
-            value.commit();
-            isClosed.set(true);
-            return null; // removes key
-        });
-        return isClosed.get();
+        for (Session session : composerSessionCache.values()) {
+            closeSession(session, false);
+        }
     }
 
-    private boolean cancelSession(UUID sessionKey) {
-        AtomicBoolean isCancelled = new AtomicBoolean(false);
-        composerSessionCache.computeIfPresent(sessionKey, (key, value) -> {
-            value.cancel();
-            isCancelled.set(true);
-            return null; // removes key
-        });
-        return isCancelled.get();
+    private boolean closeSession(Session session, boolean commit) {
+        // Remove before closing so the map bin is not locked for the duration of the commit or cancel.
+        // Only the Session instance passed in is removed, never a newer Session opened with the same STAMP values.
+        if (!composerSessionCache.remove(session.getKey(), session)) {
+            return false;
+        }
+        if (commit) {
+            session.commit();
+        } else {
+            session.cancel();
+        }
+        return true;
     }
 
-    private static UUID keyValue(State status, long time, Concept author, Concept module, Concept path) {
-        UUID uuidKey = UuidT5Generator.fromPublicIds(UUID.nameUUIDFromBytes(String.valueOf(time).getBytes()),
-                status.publicId(), author, module, path);
-        return uuidKey;
-    }
-    
 }
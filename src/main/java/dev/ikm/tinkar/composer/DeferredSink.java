@@ -0,0 +1,65 @@
+/*
+ * Copyright © 2024 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.tinkar.composer;
+
+import dev.ikm.tinkar.entity.Entity;
+import dev.ikm.tinkar.entity.EntityVersion;
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.MutableList;
+
+/**
+ * Holds the Entities written by a Session until the Session is flushed or committed, when they are handed to the
+ * Sink of the Composer in one pass. Entities held when the Session is cancelled are discarded without being written.
+ * <br />
+ * Entities are put while a Session composes under its read lock, and flushed or discarded under its write lock, so
+ * only concurrent puts need to be synchronized.
+ */
+final class DeferredSink implements Write.Sink {
+
+    private final Write.Sink target;
+    private MutableList<Entity<? extends EntityVersion>> deferredEntities = Lists.mutable.empty();
+
+    DeferredSink(Write.Sink target) {
+        this.target = target;
+    }
+
+    @Override
+    public synchronized void put(Entity<? extends EntityVersion> entity) {
+        deferredEntities.add(entity);
+    }
+
+    @Override
+    public void flush() {
+        MutableList<Entity<? extends EntityVersion>> entities = takeDeferredEntities();
+        for (Entity<? extends EntityVersion> entity : entities) {
+            target.put(entity);
+        }
+        target.flush();
+    }
+
+    /**
+     * Drops the Entities held by this Sink.
+     */
+    void discard() {
+        takeDeferredEntities();
+    }
+
+    private synchronized MutableList<Entity<? extends EntityVersion>> takeDeferredEntities() {
+        MutableList<Entity<? extends EntityVersion>> entities = deferredEntities;
+        deferredEntities = Lists.mutable.empty();
+        return entities;
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright © 2024 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.tinkar.composer;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shares equal String field values between the Semantics composed in a Session, keeping each distinct String once, so
+ * field values that repeat across rows (e.g., codes drawn from a small set) refer to the same instance rather than one
+ * copy per row. Component field values are not interned, since they are usually shared proxy constants already.
+ * <br />
+ * Interning is meant for low-cardinality field values, so the table stops growing once it holds
+ * {@link #MAX_INTERNED_VALUES} values. Values seen after that are returned as they are, which keeps a Session that
+ * interns mostly distinct values from holding all of them until it is closed.
+ */
+final class FieldValueInterner {
+
+    static final int MAX_INTERNED_VALUES = 4096;
+
+    private final ConcurrentHashMap<String, String> strings = new ConcurrentHashMap<>();
+
+    String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        String interned = strings.get(value);
+        if (interned != null) {
+            return interned;
+        }
+        if (strings.size() >= MAX_INTERNED_VALUES) {
+            return value;
+        }
+        interned = strings.putIfAbsent(value, value);
+        return interned == null ? value : interned;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright © 2024 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.tinkar.composer;
+
+import dev.ikm.tinkar.common.id.IntIdList;
+import dev.ikm.tinkar.common.id.IntIdSet;
+import dev.ikm.tinkar.entity.EntityService;
+import dev.ikm.tinkar.entity.FieldDefinitionForEntity;
+import dev.ikm.tinkar.entity.PatternEntity;
+import dev.ikm.tinkar.entity.PatternEntityVersion;
+import dev.ikm.tinkar.entity.graph.DiGraphEntity;
+import dev.ikm.tinkar.entity.graph.DiTreeEntity;
+import dev.ikm.tinkar.terms.EntityFacade;
+import dev.ikm.tinkar.terms.EntityProxy.Pattern;
+import dev.ikm.tinkar.terms.TinkarTerm;
+import org.eclipse.collections.api.list.ImmutableList;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Checks the field values of composed Semantics against the field definitions of their Pattern. The field count and
+ * the Java type expected for each field are read from the Pattern when it is first used, and cached by Pattern nid, so
+ * later Semantics of the Pattern are checked without reading it again. A value is accepted if it matches any Version
+ * of the Pattern, and fields whose datatype has no known Java type only have to be non-null.
+ * <br />
+ * Patterns that are not yet in the store (e.g., composed in a Session that defers its writes) are not checked.
+ */
+final class FieldValueValidator {
+
+    // Field types of each Version of a Pattern, with a null type for datatypes that accept any value
+    private record PatternFieldTypes(Class<?>[][] versionFieldTypes) {}
+
+    private final Map<Integer, Class<?>> datatypeClasses = Map.ofEntries(
+            Map.entry(TinkarTerm.STRING.nid(), String.class),
+            Map.entry(TinkarTerm.INTEGER_FIELD.nid(), Integer.class),
+            Map.entry(TinkarTerm.FLOAT_FIELD.nid(), Float.class),
+            Map.entry(TinkarTerm.BOOLEAN_FIELD.nid(), Boolean.class),
+            Map.entry(TinkarTerm.LONG.nid(), Long.class),
+            Map.entry(TinkarTerm.BYTE_ARRAY_FIELD.nid(), byte[].class),
+            Map.entry(TinkarTerm.INSTANT_LITERAL.nid(), Instant.class),
+            Map.entry(TinkarTerm.COMPONENT_FIELD.nid(), EntityFacade.class),
+            Map.entry(TinkarTerm.CONCEPT_FIELD.nid(), EntityFacade.class),
+            Map.entry(TinkarTerm.COMPONENT_ID_SET_FIELD.nid(), IntIdSet.class),
+            Map.entry(TinkarTerm.COMPONENT_ID_LIST_FIELD.nid(), IntIdList.class),
+            Map.entry(TinkarTerm.DITREE_FIELD.nid(), DiTreeEntity.class),
+            Map.entry(TinkarTerm.DIGRAPH_FIELD.nid(), DiGraphEntity.class));
+
+    private final ConcurrentHashMap<Integer, PatternFieldTypes> patternFieldTypes = new ConcurrentHashMap<>();
+
+    /**
+     * Checks the field values of a Semantic against the field definitions of its Pattern.
+     * @throws IllegalArgumentException if the field values do not match any Version of the Pattern
+     */
+    void validate(Pattern pattern, ImmutableList<Object> fieldValues) {
+        PatternFieldTypes fieldTypes = patternFieldTypes(pattern.nid());
+        if (fieldTypes == null) {
+            return;
+        }
+        String mismatch = null;
+        for (Class<?>[] versionFieldTypes : fieldTypes.versionFieldTypes()) {
+            mismatch = mismatch(versionFieldTypes, fieldValues);
+            if (mismatch == null) {
+                return;
+            }
+        }
+        throw new IllegalArgumentException("Field values for Pattern " + pattern.publicId() + " are invalid: " + mismatch);
+    }
+
+    private PatternFieldTypes patternFieldTypes(int patternNid) {
+        PatternFieldTypes fieldTypes = patternFieldTypes.get(patternNid);
+        if (fieldTypes != null) {
+            return fieldTypes;
+        }
+        Object patternEntity = EntityService.get().getEntityFast(patternNid);
+        if (!(patternEntity instanceof PatternEntity<?> pattern)) {
+            // Not cached, since the Pattern may be written later
+            return null;
+        }
+        Class<?>[][] versionFieldTypes = new Class<?>[pattern.versions().size()][];
+        for (int i = 0; i < versionFieldTypes.length; i++) {
+            PatternEntityVersion patternVersion = pattern.versions().get(i);
+            ImmutableList<? extends FieldDefinitionForEntity> fieldDefinitions = patternVersion.fieldDefinitions();
+            versionFieldTypes[i] = new Class<?>[fieldDefinitions.size()];
+            for (int fieldIndex = 0; fieldIndex < fieldDefinitions.size(); fieldIndex++) {
+                versionFieldTypes[i][fieldIndex] = datatypeClasses.get(fieldDefinitions.get(fieldIndex).dataTypeNid());
+            }
+        }
+        fieldTypes = new PatternFieldTypes(versionFieldTypes);
+        patternFieldTypes.put(patternNid, fieldTypes);
+        return fieldTypes;
+    }
+
+    private static String mismatch(Class<?>[] fieldTypes, ImmutableList<Object> fieldValues) {
+        if (fieldValues.size() != fieldTypes.length) {
+            return String.format("expected %s field values, but %s were provided", fieldTypes.length, fieldValues.size());
+        }
+        for (int fieldIndex = 0; fieldIndex < fieldTypes.length; fieldIndex++) {
+            Object fieldValue = fieldValues.get(fieldIndex);
+            if (fieldValue == null) {
+                return String.format("field %s is null", fieldIndex);
+            }
+            Class<?> fieldType = fieldTypes[fieldIndex];
+            if (fieldType != null && !fieldType.isInstance(fieldValue)) {
+                return String.format("field %s expected %s, but was %s", fieldIndex, fieldType.getSimpleName(), fieldValue.getClass().getSimpleName());
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright © 2024 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.tinkar.composer;
+
+import java.time.Duration;
+
+/**
+ * Decides when a Session commits its pending Components and continues with a new Transaction.
+ * <pre>{@code
+ *    session.autoFlush(FlushPolicy.componentCount(100_000).or(FlushPolicy.elapsed(Duration.ofMinutes(5))));
+ * }</pre>
+ * @see Session#autoFlush(FlushPolicy)
+ */
+@FunctionalInterface
+public interface FlushPolicy {
+
+    /**
+     * @param pendingComponentCount the number of Components in the current Session Transaction
+     * @param pendingNanos the time in nanoseconds since the current Session Transaction was opened
+     * @return true if the pending Components should be committed
+     */
+    boolean shouldFlush(int pendingComponentCount, long pendingNanos);
+
+    /**
+     * Flushes once the Session Transaction holds at least the number of Components provided.
+     * @param maxPendingComponents the number of pending Components that triggers a flush
+     */
+    static FlushPolicy componentCount(int maxPendingComponents) {
+        if (maxPendingComponents < 1) {
+            throw new IllegalArgumentException("FlushPolicy requires a component count of at least 1");
+        }
+        return (pendingComponentCount, pendingNanos) -> pendingComponentCount >= maxPendingComponents;
+    }
+
+    /**
+     * Flushes once the Session Transaction has been open for at least the Duration provided.
+     * @param maxPendingTime the time a Transaction may stay open before a flush
+     */
+    static FlushPolicy elapsed(Duration maxPendingTime) {
+        long maxPendingNanos = maxPendingTime.toNanos();
+        return (pendingComponentCount, pendingNanos) -> pendingComponentCount > 0 && pendingNanos >= maxPendingNanos;
+    }
+
+    /**
+     * Flushes once the estimated heap in use by the JVM reaches the number of bytes provided.
+     * The estimate is the allocated heap minus its free space, as reported by {@link Runtime}.
+     * @param maxUsedHeapBytes the used heap size that triggers a flush
+     */
+    static FlushPolicy heapUsage(long maxUsedHeapBytes) {
+        Runtime runtime = Runtime.getRuntime();
+        return (pendingComponentCount, pendingNanos) -> pendingComponentCount > 0
+                && runtime.totalMemory() - runtime.freeMemory() >= maxUsedHeapBytes;
+    }
+
+    /**
+     * Combines this FlushPolicy with another so that either one can trigger a flush.
+     * @param other the FlushPolicy to combine with this one
+     */
+    default FlushPolicy or(FlushPolicy other) {
+        return (pendingComponentCount, pendingNanos) -> shouldFlush(pendingComponentCount, pendingNanos)
+                || other.shouldFlush(pendingComponentCount, pendingNanos);
+    }
+}
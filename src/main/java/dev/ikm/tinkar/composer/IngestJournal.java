@@ -0,0 +1,234 @@
+/*
+ * Copyright © 2024 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.tinkar.composer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records each Session committed during an ingest, with the range of the input it covered, in a local append-only
+ * file. A restarted ingest opens the same journal, skips the input before {@link #resumeOffset(String)}, and can ask
+ * whether a range of the input was already committed with {@link #isCommitted(String, long, long)}.
+ * <pre>{@code
+ *    try (IngestJournal journal = IngestJournal.open(Path.of("target", "ingest.journal"))) {
+ *        Composer composer = new Composer("name").journal(journal);
+ *        long offset = journal.resumeOffset("release.txt");
+ *        for (Batch batch : batchesFrom("release.txt", offset)) {
+ *            Session session = composer.open(status, batch.time(), author, module, path);
+ *            session.composeConcepts(batch.concepts());
+ *            composer.commitSession(session, "release.txt", batch.startOffset(), batch.endOffset());
+ *        }
+ *    }
+ * }</pre>
+ * Each entry is one line holding the Session id, the start and end offsets, and the name of the input, written and
+ * forced to the device after the Session has committed. Batches may be committed out of order, so the resume offset
+ * is the end of the contiguous range of committed input starting at offset 0, not the highest offset recorded.
+ * Entries are only appended, so recording a commit costs a single small write. A line left incomplete by a crash is
+ * dropped when the journal is next opened, and the Session it described is composed and committed again on resume.
+ * <br /><br />
+ * Commits are tracked by input range rather than by Session, since Sessions with the same STAMP values share one id
+ * across batches and restarts. The Session id is kept in each entry only to identify the commit it records.
+ */
+public final class IngestJournal implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(IngestJournal.class);
+    private static final char SEPARATOR = '\t';
+    private static final char TERMINATOR = '\n';
+
+    private final Path file;
+    private final FileChannel channel;
+    private final ConcurrentHashMap<String, CommittedRanges> committedRanges = new ConcurrentHashMap<>();
+
+    private IngestJournal(Path file, FileChannel channel) {
+        this.file = file;
+        this.channel = channel;
+    }
+
+    /**
+     * Opens the journal at the path provided, creating it if it does not exist, and reads the commits it already
+     * holds.
+     * @param file the journal file
+     * @return the IngestJournal
+     * @throws UncheckedIOException if the journal cannot be read or opened for writing
+     */
+    public static IngestJournal open(Path file) {
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            IngestJournal journal = new IngestJournal(file, channel);
+            try {
+                journal.load();
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+            return journal;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open ingest journal " + file, e);
+        }
+    }
+
+    private void load() throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        int lineStart = 0;
+        int entryCount = 0;
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] == TERMINATOR) {
+                apply(new String(bytes, lineStart, i - lineStart, StandardCharsets.UTF_8));
+                lineStart = i + 1;
+                entryCount++;
+            }
+        }
+        if (lineStart < bytes.length) {
+            LOG.warn("Dropping incomplete entry at the end of ingest journal {}", file);
+            channel.truncate(lineStart);
+        }
+        channel.position(lineStart);
+        LOG.info("Opened ingest journal {} with {} committed Sessions", file, entryCount);
+    }
+
+    private void apply(String line) {
+        int startOffsetStart = line.indexOf(SEPARATOR);
+        int endOffsetStart = line.indexOf(SEPARATOR, startOffsetStart + 1);
+        int sourceStart = line.indexOf(SEPARATOR, endOffsetStart + 1);
+        if (startOffsetStart < 0 || endOffsetStart < 0 || sourceStart < 0) {
+            throw new IllegalStateException("Malformed entry in ingest journal " + file + ": " + line);
+        }
+        long startOffset = Long.parseLong(line.substring(startOffsetStart + 1, endOffsetStart));
+        long endOffset = Long.parseLong(line.substring(endOffsetStart + 1, sourceStart));
+        String source = line.substring(sourceStart + 1);
+        committedRanges(source).add(startOffset, endOffset);
+    }
+
+    /**
+     * Records that a Session has been committed, covering the input from the start offset up to the end offset
+     * provided. The entry is forced to the device before this method returns.
+     * @param session the committed Session
+     * @param source the name of the input the Session was composed from, which must not contain tabs or line breaks
+     * @param startOffset the offset in the input (e.g., a row number or byte position) of the first input the Session
+     * covered, where the input begins at offset 0
+     * @param endOffset the offset in the input following the last input the Session covered
+     * @throws IllegalArgumentException if the source contains tabs or line breaks, or the offsets are not a range
+     * @throws UncheckedIOException if the entry cannot be written
+     */
+    public void record(Session session, String source, long startOffset, long endOffset) {
+        if (source.indexOf(SEPARATOR) >= 0 || source.indexOf(TERMINATOR) >= 0 || source.indexOf('\r') >= 0) {
+            throw new IllegalArgumentException("Journal source must not contain tabs or line breaks: " + source);
+        }
+        if (startOffset < 0 || endOffset < startOffset) {
+            throw new IllegalArgumentException("Journal offsets must be a range starting at 0 or later, but were "
+                    + startOffset + " to " + endOffset);
+        }
+        UUID sessionId = session.getId();
+        ByteBuffer entry = StandardCharsets.UTF_8.encode(sessionId.toString() + SEPARATOR + startOffset + SEPARATOR
+                + endOffset + SEPARATOR + source + TERMINATOR);
+        synchronized (this) {
+            try {
+                while (entry.hasRemaining()) {
+                    channel.write(entry);
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write ingest journal " + file, e);
+            }
+        }
+        committedRanges(source).add(startOffset, endOffset);
+    }
+
+    private CommittedRanges committedRanges(String source) {
+        return committedRanges.computeIfAbsent(source, key -> new CommittedRanges());
+    }
+
+    /**
+     * Indicates whether every part of a range of the input has been committed, possibly by several Sessions.
+     * @param source the name of the input
+     * @param startOffset the offset of the first input in the range
+     * @param endOffset the offset following the last input in the range
+     * @return boolean representing whether the journal records commits covering the whole range
+     */
+    public boolean isCommitted(String source, long startOffset, long endOffset) {
+        CommittedRanges ranges = committedRanges.get(source);
+        return ranges != null && ranges.covers(startOffset, endOffset);
+    }
+
+    /**
+     * Provides the offset an ingest of the input should resume from.
+     * @param source the name of the input
+     * @return the end of the committed input that follows offset 0 without a gap, or 0 if the start of the input has
+     * not been committed
+     */
+    public long resumeOffset(String source) {
+        CommittedRanges ranges = committedRanges.get(source);
+        return ranges == null ? 0 : ranges.resumeOffset();
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to close ingest journal " + file, e);
+        }
+    }
+
+    /**
+     * The ranges of one input covered by committed Sessions, merged where they overlap or meet.
+     */
+    private static final class CommittedRanges {
+        // Start offset to end offset of each merged range
+        private final TreeMap<Long, Long> ranges = new TreeMap<>();
+
+        synchronized void add(long startOffset, long endOffset) {
+            Map.Entry<Long, Long> previous = ranges.floorEntry(startOffset);
+            if (previous != null && previous.getValue() >= startOffset) {
+                startOffset = previous.getKey();
+                endOffset = Math.max(endOffset, previous.getValue());
+            }
+            Map.Entry<Long, Long> next = ranges.ceilingEntry(startOffset);
+            while (next != null && next.getKey() <= endOffset) {
+                endOffset = Math.max(endOffset, next.getValue());
+                ranges.remove(next.getKey());
+                next = ranges.ceilingEntry(startOffset);
+            }
+            ranges.put(startOffset, endOffset);
+        }
+
+        synchronized boolean covers(long startOffset, long endOffset) {
+            Map.Entry<Long, Long> range = ranges.floorEntry(startOffset);
+            return range != null && range.getValue() >= endOffset;
+        }
+
+        synchronized long resumeOffset() {
+            Map.Entry<Long, Long> first = ranges.firstEntry();
+            return first != null && first.getKey() == 0 ? first.getValue() : 0;
+        }
+    }
+}
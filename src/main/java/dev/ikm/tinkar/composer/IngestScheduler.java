@@ -0,0 +1,301 @@
+/*
+ * Copyright © 2024 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.tinkar.composer;
+
+import dev.ikm.tinkar.terms.EntityProxy.Concept;
+import dev.ikm.tinkar.terms.State;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Buckets SessionConsumers by the STAMP values they are composed with and composes each bucket in large contiguous
+ * batches, so input that interleaves rows from many STAMPs does not open a Session for every row. Each bucket is a
+ * {@link Partition} holding the SessionConsumers submitted for one STAMP. A full Partition is drained in submission
+ * order into the Session of its STAMP, and a Partition is committed once it is completed.
+ * <pre>{@code
+ *    try (IngestScheduler scheduler = new IngestScheduler(composer)) {
+ *        for (Row row : rows) {
+ *            scheduler.submit(row.status(), row.time(), author, row.module(), path, session -> session
+ *                    .compose((ConceptAssembler conceptAssembler) -> conceptAssembler.publicId(row.publicId())));
+ *        }
+ *    } // Drains and commits every remaining Partition
+ * }</pre>
+ * SessionConsumers submitted to different Partitions are composed independently, so each must only depend on
+ * Components of its own Partition or Components already committed.
+ */
+public class IngestScheduler implements AutoCloseable {
+
+    public static final int DEFAULT_BATCH_SIZE = 10_000;
+
+    private final Composer composer;
+    private final ConcurrentHashMap<SessionKey, Partition> partitions = new ConcurrentHashMap<>();
+    private volatile int batchSize = DEFAULT_BATCH_SIZE;
+
+    /**
+     * Creates an IngestScheduler that composes in Sessions opened by the Composer provided.
+     * @param composer Composer used to open and commit the Session of each Partition
+     */
+    public IngestScheduler(Composer composer) {
+        this.composer = composer;
+    }
+
+    /**
+     * Sets the number of SessionConsumers a Partition holds before they are composed, which defaults to
+     * {@link #DEFAULT_BATCH_SIZE}.
+     * @param batchSize the number of SessionConsumers composed together
+     * @return this IngestScheduler
+     */
+    public IngestScheduler batchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive, but was " + batchSize);
+        }
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * Provides the Partition holding SessionConsumers for a STAMP. Callers submitting many rows with the same STAMP
+     * values can keep the Partition rather than looking it up for each row.
+     * @param status the status of Components composed in the Partition
+     * @param time the timestamp (in epoch milliseconds) of Components composed in the Partition
+     * @param author the author of Components composed in the Partition
+     * @param module the module of Components composed in the Partition
+     * @param path the path of Components composed in the Partition
+     * @return the open Partition for the STAMP
+     */
+    public Partition partition(State status, long time, Concept author, Concept module, Concept path) {
+        SessionKey sessionKey = new SessionKey(status, time, author.nid(), module.nid(), path.nid());
+        Partition partition = partitions.get(sessionKey);
+        if (partition != null) {
+            return partition;
+        }
+        return partitions.computeIfAbsent(sessionKey, key -> new Partition(key, status, time, author, module, path));
+    }
+
+    /**
+     * Adds a SessionConsumer to the Partition for a STAMP, composing the Partition if it is full.
+     * @param status the status of Components composed by the SessionConsumer
+     * @param time the timestamp (in epoch milliseconds) of Components composed by the SessionConsumer
+     * @param author the author of Components composed by the SessionConsumer
+     * @param module the module of Components composed by the SessionConsumer
+     * @param path the path of Components composed by the SessionConsumer
+     * @param sessionConsumer composes Components in the Session of the STAMP
+     */
+    public void submit(State status, long time, Concept author, Concept module, Concept path, SessionConsumer sessionConsumer) {
+        Partition partition = partition(status, time, author, module, path);
+        // A Partition completed concurrently has already been removed, so the next lookup provides a new one
+        while (!partition.offer(sessionConsumer)) {
+            partition = partition(status, time, author, module, path);
+        }
+    }
+
+    /**
+     * Composes the remaining SessionConsumers of the Partition for a STAMP and commits its Session.
+     * @return boolean representing whether a Partition was open for the STAMP
+     */
+    public boolean complete(State status, long time, Concept author, Concept module, Concept path) {
+        Partition partition = partitions.get(new SessionKey(status, time, author.nid(), module.nid(), path.nid()));
+        return partition != null && partition.complete();
+    }
+
+    /**
+     * Provides the number of Partitions that have not been completed.
+     */
+    public int partitionCount() {
+        return partitions.size();
+    }
+
+    /**
+     * Composes the remaining SessionConsumers of every open Partition and commits their Sessions in parallel using
+     * the commit Executor of the Composer. A Partition that fails to compose has its Session cancelled, and does not
+     * stop the others from being composed and committed.
+     * @throws RuntimeException the first failure thrown while composing or committing a Partition, with any later
+     * failures added as suppressed exceptions
+     */
+    @Override
+    public void close() {
+        List<RuntimeException> failures = new ArrayList<>();
+        List<CompletableFuture<Boolean>> commits = new ArrayList<>();
+        for (Partition partition : partitions.values()) {
+            try {
+                if (partition.drainAndCloseOrCancel() && partition.session != null) {
+                    commits.add(composer.commitSessionAsync(partition.session));
+                }
+            } catch (RuntimeException e) {
+                failures.add(e);
+            }
+        }
+        for (CompletableFuture<Boolean> commit : commits) {
+            try {
+                commit.join();
+            } catch (CompletionException e) {
+                failures.add(e.getCause() instanceof RuntimeException runtimeException ? runtimeException : e);
+            } catch (RuntimeException e) {
+                failures.add(e);
+            }
+        }
+        if (!failures.isEmpty()) {
+            RuntimeException failure = failures.getFirst();
+            for (int i = 1; i < failures.size(); i++) {
+                failure.addSuppressed(failures.get(i));
+            }
+            throw failure;
+        }
+    }
+
+    /**
+     * Holds the SessionConsumers submitted for one STAMP until a batch is full. The Session of the STAMP is opened
+     * when the first batch is composed, so a Partition that is never drained opens no Session.
+     * <br />
+     * Batches of a Partition are composed one at a time, in submission order, by the thread whose submission filled
+     * the batch. A full batch is taken from the Partition under its monitor and composed outside of it, so other
+     * threads can keep submitting to the Partition while a batch is composed. A thread that fills a batch while an
+     * earlier one is being composed waits for it, and other Partitions are composed concurrently.
+     */
+    public final class Partition {
+        private final SessionKey key;
+        private final State status;
+        private final long time;
+        private final Concept author;
+        private final Concept module;
+        private final Concept path;
+        private List<SessionConsumer> pending = new ArrayList<>();
+        // Full batches in submission order, taken from the head by the thread holding the compose lock
+        private final ArrayDeque<List<SessionConsumer>> batches = new ArrayDeque<>();
+        private final ReentrantLock composeLock = new ReentrantLock();
+        private Session session;
+        private boolean closed;
+
+        private Partition(SessionKey key, State status, long time, Concept author, Concept module, Concept path) {
+            this.key = key;
+            this.status = status;
+            this.time = time;
+            this.author = author;
+            this.module = module;
+            this.path = path;
+        }
+
+        /**
+         * Adds a SessionConsumer to this Partition, composing the Partition if it is full.
+         * @param sessionConsumer composes Components in the Session of this Partition
+         * @throws IllegalStateException if this Partition has been completed
+         */
+        public void submit(SessionConsumer sessionConsumer) {
+            if (!offer(sessionConsumer)) {
+                throw new IllegalStateException("Partition has already been completed");
+            }
+        }
+
+        /**
+         * Composes the remaining SessionConsumers of this Partition and commits its Session. If composing fails, the
+         * Session is cancelled instead. Later submissions for the same STAMP through the IngestScheduler are held by a
+         * new Partition.
+         * @return boolean representing whether this Partition was open
+         */
+        public boolean complete() {
+            if (!drainAndCloseOrCancel()) {
+                return false;
+            }
+            if (session != null) {
+                composer.commitSession(session);
+            }
+            return true;
+        }
+
+        private boolean offer(SessionConsumer sessionConsumer) {
+            synchronized (this) {
+                if (closed) {
+                    return false;
+                }
+                pending.add(sessionConsumer);
+                if (pending.size() < batchSize) {
+                    return true;
+                }
+                takeBatch();
+            }
+            composeBatches();
+            return true;
+        }
+
+        /**
+         * Composes the pending SessionConsumers and closes this Partition. The Session is no longer changed once
+         * closed, so the thread that closed the Partition can commit it once this method returns.
+         * @return boolean representing whether this Partition was open
+         */
+        private boolean drainAndClose() {
+            synchronized (this) {
+                if (closed) {
+                    return false;
+                }
+                closed = true;
+                partitions.remove(key, this);
+                takeBatch();
+            }
+            composeBatches();
+            return true;
+        }
+
+        /**
+         * Closes this Partition as {@link #drainAndClose()} does, cancelling its Session if composing fails so that
+         * the Components already written by the failed batches are not committed later with the other Sessions of the
+         * Composer.
+         */
+        private boolean drainAndCloseOrCancel() {
+            try {
+                return drainAndClose();
+            } catch (RuntimeException e) {
+                if (session != null) {
+                    composer.cancelSession(session);
+                }
+                throw e;
+            }
+        }
+
+        // Called holding the monitor of this Partition
+        private void takeBatch() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batches.add(pending);
+            pending = new ArrayList<>(batchSize);
+        }
+
+        private void composeBatches() {
+            composeLock.lock();
+            try {
+                List<SessionConsumer> batch;
+                while ((batch = nextBatch()) != null) {
+                    if (session == null) {
+                        session = composer.open(status, time, author, module, path);
+                    }
+                    session.composeInOrder(batch);
+                }
+            } finally {
+                composeLock.unlock();
+            }
+        }
+
+        private synchronized List<SessionConsumer> nextBatch() {
+            return batches.poll();
+        }
+    }
+}
@@ -48,6 +48,24 @@ protected Semantic defaultSemantic() {
         return Semantic.make(PublicIds.newRandom());
     }
 
+    /**
+     * Clears the values set on this SemanticTemplate, including its Semantic and reference, so that the instance can
+     * be configured and written again. Subclasses that hold field values override this method to clear them, and
+     * {@link Attachable#attach(Class, java.util.function.Consumer)} only reuses instances of classes that declare it.
+     * @return this SemanticTemplate for further method chaining
+     */
+    public SemanticTemplate reset() {
+        this.semantic = null;
+        setReference(null);
+        setSessionTransaction(null);
+        setSessionStampEntity(null);
+        setSessionSink(Write.Sink.ENTITY_SERVICE);
+        setSessionFieldValueInterner(null);
+        setSessionStatedNavigationIndex(null);
+        setSessionFieldValueValidator(null);
+        return this;
+    }
+
     /**
      * Sets the Semantic for the SemanticTemplate
      * @param semantic
@@ -64,18 +82,31 @@ protected EntityProxy asReferenceComponent() {
         return semantic();
     }
 
-    @Override
-    protected void validateAndWrite() {
+    /**
+     * Validates this SemanticTemplate with {@link #validate()} and checks that it references a Component. Subclasses
+     * that override {@link #validateAndWrite()} call this before writing.
+     * @throws IllegalArgumentException if the SemanticTemplate is invalid or has no reference
+     */
+    protected void validateForWrite() throws IllegalArgumentException {
         validate();
-        if (super.getReference()==null) {
+        if (!hasReference()) {
             throw new IllegalArgumentException("Semantic requires a reference");
         }
+    }
+
+    @Override
+    protected void validateAndWrite() {
+        validateForWrite();
+        Pattern pattern = assignPattern();
+        ImmutableList<Object> fieldValues = assignFieldValues();
+        validateFieldValues(pattern, fieldValues);
         super.getSessionTransaction().addComponent(semantic());
         Write.semantic(semantic(),
-                super.getSessionStampEntity(),
+                super.getSessionStampEntity().nid(),
                 getReference(),
-                assignPattern(),
-                assignFieldValues());
+                pattern,
+                fieldValues,
+                super.getSessionSink());
     }
 
 }
@@ -0,0 +1,226 @@
+/*
+ * Copyright © 2024 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.tinkar.composer;
+
+import dev.ikm.tinkar.composer.template.AxiomSyntax;
+import dev.ikm.tinkar.composer.template.Comment;
+import dev.ikm.tinkar.composer.template.Definition;
+import dev.ikm.tinkar.composer.template.Description;
+import dev.ikm.tinkar.composer.template.FullyQualifiedName;
+import dev.ikm.tinkar.composer.template.GBDialect;
+import dev.ikm.tinkar.composer.template.Identifier;
+import dev.ikm.tinkar.composer.template.KometBaseModel;
+import dev.ikm.tinkar.composer.template.StatedAxiom;
+import dev.ikm.tinkar.composer.template.StatedNavigation;
+import dev.ikm.tinkar.composer.template.Synonym;
+import dev.ikm.tinkar.composer.template.TinkarBaseModel;
+import dev.ikm.tinkar.composer.template.USDialect;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Provides the factories used by {@link Attachable#attach(Class, java.util.function.Consumer)} to create
+ * SemanticTemplates. Factories are cached per class, so a class is only inspected the first time it is attached.
+ * Templates of classes that declare {@link SemanticTemplate#reset()} are also pooled per platform thread and reused
+ * by later attaches. Pools are held in a ThreadLocal, so attaches on virtual threads always create a new template:
+ * a virtual thread is usually discarded after a single task, and a pool per virtual thread would be allocated and
+ * dropped with it. Ingests that depend on template reuse should compose on platform threads, or reuse a template
+ * explicitly with {@link SemanticTemplate#reset()}.
+ * <br /><br />
+ * The predefined templates are registered with constructor references. Other SemanticTemplate classes are created with
+ * a Supplier spun by LambdaMetafactory from their public no-argument constructor, unless a factory is registered for
+ * them:
+ * <pre>{@code
+ *    SemanticTemplates.register(CustomSemantic.class, CustomSemantic::new);
+ * }</pre>
+ */
+public final class SemanticTemplates {
+
+    private SemanticTemplates() {}
+
+    // Nested attaches of the same class each need an instance, so a few instances are kept per class
+    private static final int MAX_POOLED_PER_CLASS = 8;
+
+    private static final ThreadLocal<Map<Class<?>, ArrayDeque<SemanticTemplate>>> POOLS = ThreadLocal.withInitial(HashMap::new);
+
+    private static final ClassValue<Boolean> RESETTABLE = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                type.getDeclaredMethod("reset");
+                return true;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    };
+
+    private static final ConcurrentHashMap<Class<?>, Supplier<?>> REGISTERED_FACTORIES = new ConcurrentHashMap<>();
+
+    private static final ClassValue<Supplier<?>> FACTORIES = new ClassValue<>() {
+        @Override
+        protected Supplier<?> computeValue(Class<?> type) {
+            Supplier<?> registeredFactory = REGISTERED_FACTORIES.get(type);
+            return registeredFactory != null ? registeredFactory : constructorFactory(type);
+        }
+    };
+
+    static {
+        register(AxiomSyntax.class, AxiomSyntax::new);
+        register(Comment.class, Comment::new);
+        register(Definition.class, Definition::new);
+        register(Description.class, Description::new);
+        register(FullyQualifiedName.class, FullyQualifiedName::new);
+        register(GBDialect.class, GBDialect::new);
+        register(Identifier.class, Identifier::new);
+        register(KometBaseModel.class, KometBaseModel::new);
+        register(StatedAxiom.class, StatedAxiom::new);
+        register(StatedNavigation.class, StatedNavigation::new);
+        register(Synonym.class, Synonym::new);
+        register(TinkarBaseModel.class, TinkarBaseModel::new);
+        register(USDialect.class, USDialect::new);
+    }
+
+    /**
+     * Registers the factory used to create instances of a SemanticTemplate class, replacing any factory previously
+     * registered or cached for that class.
+     * @param type the SemanticTemplate subclass
+     * @param factory creates a new instance of the SemanticTemplate on each call
+     * @param <T> the SemanticTemplate type
+     */
+    public static <T extends SemanticTemplate> void register(Class<T> type, Supplier<? extends T> factory) {
+        REGISTERED_FACTORIES.put(type, factory);
+        FACTORIES.remove(type);
+    }
+
+    /**
+     * Provides the factory for a SemanticTemplate class.
+     * @param type the SemanticTemplate subclass
+     * @return the registered factory, or a factory calling the public no-argument constructor of the class
+     * @param <T> the SemanticTemplate type
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends SemanticTemplate> Supplier<T> factory(Class<T> type) {
+        return (Supplier<T>) FACTORIES.get(type);
+    }
+
+    static <T extends SemanticTemplate> T newInstance(Class<T> type) {
+        return type.cast(FACTORIES.get(type).get());
+    }
+
+    /**
+     * Provides a SemanticTemplate from the pool of the current thread, or a new instance if none is pooled. Only
+     * classes that declare their own {@link SemanticTemplate#reset()} are pooled, since a reset inherited from a
+     * superclass would not clear the fields the class adds. Virtual threads are not pooled, because each one
+     * typically composes too little to reuse a template, and a ThreadLocal pool would be allocated for every one.
+     */
+    static <T extends SemanticTemplate> T acquire(Class<T> type) {
+        if (Thread.currentThread().isVirtual() || !RESETTABLE.get(type)) {
+            return newInstance(type);
+        }
+        ArrayDeque<SemanticTemplate> pool = POOLS.get().get(type);
+        SemanticTemplate template = pool == null ? null : pool.poll();
+        return template != null ? type.cast(template) : newInstance(type);
+    }
+
+    /**
+     * Resets a SemanticTemplate once it has been written, or has failed to be written, and returns it to the pool of
+     * the current thread.
+     */
+    static void release(SemanticTemplate template) {
+        Class<? extends SemanticTemplate> type = template.getClass();
+        if (Thread.currentThread().isVirtual() || !RESETTABLE.get(type)) {
+            return;
+        }
+        ArrayDeque<SemanticTemplate> pool = POOLS.get().computeIfAbsent(type, key -> new ArrayDeque<>());
+        if (pool.size() < MAX_POOLED_PER_CLASS) {
+            pool.push(template.reset());
+        }
+    }
+
+    private static Supplier<?> constructorFactory(Class<?> type) {
+        MethodHandle constructor;
+        try {
+            constructor = MethodHandles.publicLookup().findConstructor(type, MethodType.methodType(void.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            // Not publicly accessible (e.g., a package that is only opened), so fall back to the reflective constructor
+            return reflectiveFactory(type);
+        }
+        Supplier<?> lambdaFactory = lambdaFactory(type, constructor);
+        return lambdaFactory != null ? lambdaFactory : methodHandleFactory(type, constructor);
+    }
+
+    /**
+     * Spins a Supplier class whose {@code get} calls the constructor directly, so the call is inlined like a
+     * constructor reference rather than going through a MethodHandle held in a field. The constructor is called from
+     * this module, so the package of the class must be exported to it.
+     * @return the Supplier, or null if the class cannot be linked from this module
+     */
+    private static Supplier<?> lambdaFactory(Class<?> type, MethodHandle constructor) {
+        Module composerModule = SemanticTemplates.class.getModule();
+        Module typeModule = type.getModule();
+        if (!typeModule.isExported(type.getPackageName(), composerModule)) {
+            return null;
+        }
+        composerModule.addReads(typeModule);
+        try {
+            CallSite callSite = LambdaMetafactory.metafactory(MethodHandles.lookup(), "get",
+                    MethodType.methodType(Supplier.class), MethodType.methodType(Object.class),
+                    constructor, MethodType.methodType(type));
+            return (Supplier<?>) callSite.getTarget().invoke();
+        } catch (Throwable t) {
+            return null;
+        }
+    }
+
+    private static Supplier<?> methodHandleFactory(Class<?> type, MethodHandle constructor) {
+        MethodHandle objectConstructor = constructor.asType(MethodType.methodType(Object.class));
+        return () -> {
+            try {
+                return (Object) objectConstructor.invokeExact();
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new RuntimeException("Failed to instantiate " + type.getSimpleName(), t);
+            }
+        };
+    }
+
+    private static Supplier<?> reflectiveFactory(Class<?> type) {
+        try {
+            Constructor<?> constructor = type.getDeclaredConstructor();
+            return () -> {
+                try {
+                    return constructor.newInstance();
+                } catch (ReflectiveOperationException e) {
+                    throw new RuntimeException("Failed to instantiate " + type.getSimpleName(), e);
+                }
+            };
+        } catch (NoSuchMethodException e) {
+            throw new RuntimeException("Failed to instantiate " + type.getSimpleName(), e);
+        }
+    }
+}
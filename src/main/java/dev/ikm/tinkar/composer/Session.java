@@ -15,6 +15,7 @@
  */
 package dev.ikm.tinkar.composer;
 
+import dev.ikm.tinkar.common.util.uuid.UuidT5Generator;
 import dev.ikm.tinkar.composer.assembler.ConceptAssembler;
 import dev.ikm.tinkar.composer.assembler.ConceptAssemblerConsumer;
 import dev.ikm.tinkar.composer.assembler.PatternAssembler;
@@ -24,26 +25,174 @@
 import dev.ikm.tinkar.entity.StampEntity;
 import dev.ikm.tinkar.entity.transaction.Transaction;
 import dev.ikm.tinkar.terms.EntityProxy;
+import dev.ikm.tinkar.terms.EntityProxy.Concept;
+import dev.ikm.tinkar.terms.EntityProxy.Pattern;
+import dev.ikm.tinkar.terms.EntityProxy.Semantic;
+import dev.ikm.tinkar.terms.State;
+import org.eclipse.collections.api.list.ImmutableList;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Iterator;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
 
 public class Session {
 
     private static final Logger LOG = LoggerFactory.getLogger(Session.class);
-    private final StampEntity<?> stampEntity;
-    private final Transaction transaction;
-    private final UUID id;
+    private static final int MAX_IN_FLIGHT_COMPOSITIONS = 1024;
+    private static final int NID_REGISTRATION_BATCH_SIZE = 1024;
+    private final String transactionName;
+    private final State status;
+    private final long time;
+    private final Concept author;
+    private final Concept module;
+    private final Concept path;
+    private final SessionKey key;
+    private final Write.Sink composerSink;
+    private volatile Write.Sink sink;
+    private volatile FieldValueInterner fieldValueInterner;
+    private volatile StatedNavigationIndex statedNavigationIndex;
+    private final FieldValueValidator fieldValueValidator;
+    private volatile UUID id;
+    // Compositions hold the read lock; rolling to a new Transaction or ending the Session holds the write lock
+    private final ReentrantReadWriteLock transactionLock = new ReentrantReadWriteLock();
+    private volatile Transaction transaction;
+    private volatile StampEntity<?> stampEntity;
+    private volatile long transactionOpenedNanos;
+    private volatile FlushPolicy flushPolicy;
+    // Set once a ComposeSubscriber has been provided, since it commits pending Components between windows
+    private volatile boolean subscribed;
+    private int flushedComponentCount;
 
     /**
-     * Provides a Session for creating Components using the Transaction and STAMP provided.
+     * Provides a Session for creating Components with a STAMP made from the status, time, author, module, and path
+     * provided. A time of {@code Long.MAX_VALUE} sets the STAMP time when the Session is committed.
      */
-    protected Session(Transaction transaction, StampEntity<?> stampEntity, UUID id){
-        this.transaction = transaction;
-        this.stampEntity = stampEntity;
-        this.id = id;
-        LOG.info("Session {} - Initializing with stamp: {}", transaction.hashCode(), stampEntity);
+    Session(String transactionName, State status, long time, Concept author, Concept module, Concept path,
+            SessionKey key, Write.Sink sink, FieldValueValidator fieldValueValidator) {
+        this.transactionName = transactionName;
+        this.status = status;
+        this.time = time;
+        this.author = author;
+        this.module = module;
+        this.path = path;
+        this.key = key;
+        this.composerSink = sink;
+        this.sink = sink;
+        this.fieldValueValidator = fieldValueValidator;
+        openTransaction();
+    }
+
+    private void openTransaction() {
+        Transaction newTransaction = new Transaction(transactionName);
+        if (time == Long.MAX_VALUE) {
+            this.stampEntity = newTransaction.getStamp(status, author, module, path);
+        } else {
+            this.stampEntity = newTransaction.getStamp(status, time, author.publicId(), module.publicId(), path.publicId());
+        }
+        this.transaction = newTransaction;
+        this.transactionOpenedNanos = System.nanoTime();
+        LOG.info("Session {} - Initializing with stamp: {}", newTransaction.hashCode(), stampEntity);
+    }
+
+    /**
+     * Enables automatic flushing for this Session. Before each composition, the FlushPolicy is checked against the
+     * Components pending in the Session Transaction. When it fires, the pending Components are committed and the Session
+     * continues with a new Transaction and a new STAMP using the same status, time, author, module, and path.
+     * <br /><br />
+     * The check is made when the next composition begins, so Semantics attached to the result of a previous compose
+     * call are still written to the Transaction that the Component was written to.
+     * Components committed by a flush are no longer affected by {@link #cancel()}.
+     * <br /><br />
+     * Automatic flushing cannot be combined with {@link #deriveStatedNavigation()}, since StatedNavigation Semantics
+     * are only written when the Session is committed, and StatedAxioms committed by a flush would otherwise have no
+     * navigation if the Session were cancelled.
+     * @param flushPolicy the policy deciding when pending Components are committed, or null to disable flushing
+     * @return this Session for further method chaining
+     * @throws IllegalStateException if this Session derives StatedNavigation Semantics
+     * @see FlushPolicy
+     */
+    public Session autoFlush(FlushPolicy flushPolicy) {
+        if (flushPolicy != null && statedNavigationIndex != null) {
+            throw new IllegalStateException("A Session deriving StatedNavigation cannot be flushed automatically");
+        }
+        this.flushPolicy = flushPolicy;
+        return this;
+    }
+
+    /**
+     * Defers writing for this Session. Composed Components are held in memory by the Session and written to the store
+     * in one pass when the Session is flushed or committed. When the Session is cancelled they are discarded without
+     * ever reaching the store.
+     * <br /><br />
+     * Components composed before this call have already been written. Components composed after it are not in the
+     * store until the Session is flushed or committed, so they should not be read back through the EntityService
+     * before then.
+     * @return this Session for further method chaining
+     */
+    public Session deferWrites() {
+        transactionLock.writeLock().lock();
+        try {
+            if (!(sink instanceof DeferredSink)) {
+                sink = new DeferredSink(composerSink);
+            }
+        } finally {
+            transactionLock.writeLock().unlock();
+        }
+        return this;
+    }
+
+    /**
+     * Shares equal String field values between the Semantics composed in this Session. Templates that support it,
+     * such as generated templates whose String fields are marked with
+     * {@link dev.ikm.tinkar.composer.generator.TemplateField#intern()}, then refer to one instance of each value in
+     * those fields instead of holding a copy per Semantic. Free text, such as description text, is not interned, since
+     * it rarely repeats.
+     * <br /><br />
+     * Interned values are held until the Session is closed, up to a fixed number of distinct values, so this is best
+     * suited to Sessions whose field values repeat, or whose Components are held in memory by {@link #deferWrites()}
+     * or a coalescing Composer.
+     * @return this Session for further method chaining
+     */
+    public Session internFieldValues() {
+        if (fieldValueInterner == null) {
+            fieldValueInterner = new FieldValueInterner();
+        }
+        return this;
+    }
+
+    /**
+     * Derives the StatedNavigation Semantics of this Session from its StatedAxioms. The parents of each StatedAxiom
+     * composed after this call are indexed, and when the Session is committed a StatedNavigation Semantic is written
+     * for every Concept that is a parent or child in the index, in one pass.
+     * <br /><br />
+     * Navigation is derived only from the StatedAxioms composed in this Session, so a Session should include every
+     * StatedAxiom of the Concepts it affects (e.g., a full release). StatedNavigation Semantics are not derived by a
+     * flush, and are not written if the Session is cancelled, so this cannot be combined with
+     * {@link #autoFlush(FlushPolicy)} or {@link #subscriber()}.
+     * @return this Session for further method chaining
+     * @throws IllegalStateException if this Session is flushed automatically or has provided a ComposeSubscriber
+     */
+    public Session deriveStatedNavigation() {
+        if (flushPolicy != null) {
+            throw new IllegalStateException("A Session flushed automatically cannot derive StatedNavigation");
+        }
+        if (subscribed) {
+            throw new IllegalStateException("A Session composing through a ComposeSubscriber cannot derive StatedNavigation");
+        }
+        if (statedNavigationIndex == null) {
+            statedNavigationIndex = new StatedNavigationIndex();
+        }
+        return this;
     }
 
     /**
@@ -53,13 +202,18 @@ protected Session(Transaction transaction, StampEntity<?> stampEntity, UUID id){
      * @see ConceptAssemblerConsumer
      */
     public Attachable compose(ConceptAssemblerConsumer conceptAssemblerConsumer) {
-        ConceptAssembler conceptAssembler = new ConceptAssembler();
-        conceptAssembler.setSessionTransaction(transaction);
-        conceptAssembler.setSessionStampEntity(stampEntity);
+        flushIfRequired();
+        transactionLock.readLock().lock();
+        try {
+            ConceptAssembler conceptAssembler = new ConceptAssembler();
+            initializeAttachable(conceptAssembler);
 
-        conceptAssemblerConsumer.accept(conceptAssembler);
-        ((Attachable) conceptAssembler).validateAndWrite();
-        return conceptAssembler;
+            conceptAssemblerConsumer.accept(conceptAssembler);
+            ((Attachable) conceptAssembler).validateAndWrite();
+            return conceptAssembler;
+        } finally {
+            transactionLock.readLock().unlock();
+        }
     }
 
     /**
@@ -69,13 +223,18 @@ public Attachable compose(ConceptAssemblerConsumer conceptAssemblerConsumer) {
      * @see PatternAssemblerConsumer
      */
     public Attachable compose(PatternAssemblerConsumer patternAssemblerConsumer) {
-        PatternAssembler patternAssembler = new PatternAssembler();
-        patternAssembler.setSessionTransaction(transaction);
-        patternAssembler.setSessionStampEntity(stampEntity);
+        flushIfRequired();
+        transactionLock.readLock().lock();
+        try {
+            PatternAssembler patternAssembler = new PatternAssembler();
+            initializeAttachable(patternAssembler);
 
-        patternAssemblerConsumer.accept(patternAssembler);
-        ((Attachable) patternAssembler).validateAndWrite();
-        return patternAssembler;
+            patternAssemblerConsumer.accept(patternAssembler);
+            ((Attachable) patternAssembler).validateAndWrite();
+            return patternAssembler;
+        } finally {
+            transactionLock.readLock().unlock();
+        }
     }
 
     /**
@@ -85,13 +244,18 @@ public Attachable compose(PatternAssemblerConsumer patternAssemblerConsumer) {
      * @see SemanticAssemblerConsumer
      */
     public Attachable compose(SemanticAssemblerConsumer semanticAssemblerConsumer) {
-        SemanticAssembler semanticAssembler = new SemanticAssembler();
-        semanticAssembler.setSessionTransaction(transaction);
-        semanticAssembler.setSessionStampEntity(stampEntity);
+        flushIfRequired();
+        transactionLock.readLock().lock();
+        try {
+            SemanticAssembler semanticAssembler = new SemanticAssembler();
+            initializeAttachable(semanticAssembler);
 
-        semanticAssemblerConsumer.accept(semanticAssembler);
-        ((Attachable) semanticAssembler).validateAndWrite();
-        return semanticAssembler;
+            semanticAssemblerConsumer.accept(semanticAssembler);
+            ((Attachable) semanticAssembler).validateAndWrite();
+            return semanticAssembler;
+        } finally {
+            transactionLock.readLock().unlock();
+        }
     }
 
     /**
@@ -102,30 +266,310 @@ public Attachable compose(SemanticAssemblerConsumer semanticAssemblerConsumer) {
      * @see SemanticTemplate
      */
     public Attachable compose(SemanticTemplate semanticTemplate, EntityProxy reference) {
-        semanticTemplate.setSessionTransaction(transaction);
-        semanticTemplate.setSessionStampEntity(stampEntity);
-        semanticTemplate.setReference(reference);
+        flushIfRequired();
+        transactionLock.readLock().lock();
+        try {
+            initializeAttachable(semanticTemplate);
+            semanticTemplate.setReference(reference);
 
-        semanticTemplate.validateAndWrite();
-        return semanticTemplate;
+            semanticTemplate.validateAndWrite();
+            return semanticTemplate;
+        } finally {
+            transactionLock.readLock().unlock();
+        }
     }
 
     /**
-     * Provides the number of Components written by the Session. This count does not include the STAMP associated with the Session.
+     * Creates a Concept for each Concept Proxy provided. The Concepts are written as one batch using the STAMP of this
+     * Session, which avoids the per-Component overhead of composing each Concept with a ConceptAssembler.
+     * @param concepts the Concept Proxies containing the PublicIds of the Concepts to create
+     * @see Write#concepts(List, int)
      */
-    public int componentsInSessionCount() {
-        return transaction.componentsInTransactionCount();
+    public void composeConcepts(List<? extends Concept> concepts) {
+        registerNids(null, concepts, List.of());
+        flushIfRequired();
+        transactionLock.readLock().lock();
+        try {
+            concepts.forEach(transaction::addComponent);
+            Write.concepts(concepts, stampEntity.nid(), sink);
+        } finally {
+            transactionLock.readLock().unlock();
+        }
     }
 
     /**
-     * Cancels the Transaction and STAMP associated with this Session so that they will not be committed.
+     * Creates a Semantic with the Pattern provided for each Semantic Proxy. The lists are read as columns, so the
+     * Semantic, referenced Component, and field values at each index describe one Semantic. The Semantics are written
+     * as one batch using the STAMP of this Session.
+     * @param pattern the Pattern of every Semantic
+     * @param semantics the Semantic Proxies containing the PublicIds of the Semantics to create
+     * @param references the referenced Component of each Semantic
+     * @param fieldValues the field values of each Semantic
+     * @see Write#semantics(Pattern, int, List, List, List)
      */
-    public void cancel() {
-        LOG.info("Session {} - Cancelling updates to {} Entities with stamp: {}",
+    public void composeSemantics(Pattern pattern, List<? extends Semantic> semantics,
+                                 List<? extends EntityProxy> references, List<ImmutableList<Object>> fieldValues) {
+        if (fieldValueValidator != null) {
+            fieldValues.forEach(semanticFieldValues -> fieldValueValidator.validate(pattern, semanticFieldValues));
+        }
+        registerNids(pattern, semantics, references);
+        flushIfRequired();
+        transactionLock.readLock().lock();
+        try {
+            semantics.forEach(transaction::addComponent);
+            Write.semantics(pattern, stampEntity.nid(), semantics, references, fieldValues, sink);
+        } finally {
+            transactionLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Resolves the nids of a large batch, with its Pattern and the STAMP of this Session, in one sorted pass before
+     * the Session Transaction and the records are written, outside the read lock so a flush is not held up by
+     * identifier resolution. Small batches are resolved as they are written.
+     */
+    private void registerNids(Pattern pattern, List<? extends EntityProxy> components, List<? extends EntityProxy> references) {
+        if (components.size() >= NID_REGISTRATION_BATCH_SIZE) {
+            Write.registerNids(stampEntity.publicId(), pattern, components, references);
+        }
+    }
+
+    private void initializeAttachable(Attachable attachable) {
+        attachable.setSessionTransaction(transaction);
+        attachable.setSessionStampEntity(stampEntity);
+        attachable.setSessionSink(sink);
+        attachable.setSessionFieldValueInterner(fieldValueInterner);
+        attachable.setSessionStatedNavigationIndex(statedNavigationIndex);
+        attachable.setSessionFieldValueValidator(fieldValueValidator);
+    }
+
+    /**
+     * Runs each SessionConsumer against this Session on its own virtual thread. Returns once every Component composed
+     * by the consumers has been written and added to the Session Transaction.
+     * <br /><br />
+     * Each consumer must be independent of the others, since they run in no particular order. Semantics attached to a
+     * composed Component should be attached within the same consumer.
+     * <pre>{@code
+     *    session.composeAll(rows.stream().map(row -> (SessionConsumer) s -> s
+     *              .compose((ConceptAssembler conceptAssembler) -> conceptAssembler.publicId(row.publicId()))
+     *              .attach(FullyQualifiedName.class, fqn -> fqn.language(ENGLISH_LANGUAGE).text(row.term())
+     *                      .caseSignificance(DESCRIPTION_NOT_CASE_SENSITIVE))));
+     * }</pre>
+     * @param sessionConsumers Stream of SessionConsumers that compose Components in this Session
+     * @throws RuntimeException the first failure thrown by a consumer, after all submitted consumers have completed
+     * @see SessionConsumer
+     */
+    public void composeAll(Stream<? extends SessionConsumer> sessionConsumers) {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            composeAll(sessionConsumers.iterator(), executor);
+        }
+    }
+
+    /**
+     * Runs each SessionConsumer against this Session on its own virtual thread.
+     * @param sessionConsumers SessionConsumers that compose Components in this Session
+     * @see #composeAll(Stream)
+     */
+    public void composeAll(Iterable<? extends SessionConsumer> sessionConsumers) {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            composeAll(sessionConsumers.iterator(), executor);
+        }
+    }
+
+    /**
+     * Runs each SessionConsumer against this Session using the supplied Executor (e.g., a ForkJoinPool). Returns once
+     * every Component composed by the consumers has been written and added to the Session Transaction.
+     * @param sessionConsumers SessionConsumers that compose Components in this Session
+     * @param executor Executor that runs the consumers
+     * @see #composeAll(Stream)
+     */
+    public void composeAll(Iterable<? extends SessionConsumer> sessionConsumers, Executor executor) {
+        composeAll(sessionConsumers.iterator(), executor);
+    }
+
+    /**
+     * Provides a Flow.Subscriber that composes each SessionConsumer it receives in this Session. The subscriber only
+     * requests more SessionConsumers while the Components pending in the Session Transaction and the time taken to
+     * compose stay within its limits, so a fast publisher is held back rather than buffering in memory.
+     * <pre>{@code
+     *    SubmissionPublisher<SessionConsumer> publisher = new SubmissionPublisher<>();
+     *    ComposeSubscriber subscriber = session.subscriber().maxPendingComponents(100_000);
+     *    publisher.subscribe(subscriber);
+     *    rows.forEach(row -> publisher.submit(s -> s.compose(...)));
+     *    publisher.close();
+     *    subscriber.completion().join();
+     * }</pre>
+     * The subscriber commits pending Components between windows, so it cannot be used by a Session that derives
+     * StatedNavigation Semantics, which are only written when the Session is committed.
+     * @return a new ComposeSubscriber for this Session
+     * @throws IllegalStateException if this Session derives StatedNavigation Semantics
+     * @see ComposeSubscriber
+     */
+    public ComposeSubscriber subscriber() {
+        if (statedNavigationIndex != null) {
+            throw new IllegalStateException("A Session deriving StatedNavigation cannot compose through a ComposeSubscriber");
+        }
+        subscribed = true;
+        return new ComposeSubscriber(this);
+    }
+
+    private void composeAll(Iterator<? extends SessionConsumer> sessionConsumers, Executor executor) {
+        // Bounds the consumers waiting to run so that large inputs are not buffered in the executor queue
+        Semaphore inFlight = new Semaphore(MAX_IN_FLIGHT_COMPOSITIONS);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        try {
+            while (sessionConsumers.hasNext() && failure.get() == null) {
+                SessionConsumer sessionConsumer = sessionConsumers.next();
+                inFlight.acquireUninterruptibly();
+                try {
+                    executor.execute(() -> {
+                        try {
+                            composeWithinTransaction(sessionConsumer);
+                        } catch (Throwable t) {
+                            if (!failure.compareAndSet(null, t)) {
+                                failure.get().addSuppressed(t);
+                            }
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    inFlight.release();
+                    throw e;
+                }
+            }
+        } finally {
+            // Wait for every submitted consumer to finish
+            inFlight.acquireUninterruptibly(MAX_IN_FLIGHT_COMPOSITIONS);
+        }
+        Throwable t = failure.get();
+        if (t instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        } else if (t instanceof Error error) {
+            throw error;
+        } else if (t != null) {
+            throw new RuntimeException(t);
+        }
+    }
+
+    void composeWithinTransaction(SessionConsumer sessionConsumer) {
+        // Holding the read lock keeps everything the consumer composes and attaches in one Transaction
+        transactionLock.readLock().lock();
+        try {
+            sessionConsumer.accept(this);
+        } finally {
+            transactionLock.readLock().unlock();
+        }
+        flushIfRequired();
+    }
+
+    /**
+     * Runs a batch of SessionConsumers against this Session on the calling thread, in order, acquiring the read lock
+     * once for the whole batch rather than once per consumer.
+     */
+    void composeInOrder(List<? extends SessionConsumer> sessionConsumers) {
+        transactionLock.readLock().lock();
+        try {
+            for (SessionConsumer sessionConsumer : sessionConsumers) {
+                sessionConsumer.accept(this);
+            }
+        } finally {
+            transactionLock.readLock().unlock();
+        }
+        flushIfRequired();
+    }
+
+    private void flushIfRequired() {
+        FlushPolicy policy = this.flushPolicy;
+        // A thread already composing in this Session cannot roll the Transaction it is composing in
+        if (policy == null || transactionLock.getReadHoldCount() > 0) {
+            return;
+        }
+        if (!policy.shouldFlush(transaction.componentsInTransactionCount(), System.nanoTime() - transactionOpenedNanos)) {
+            return;
+        }
+        transactionLock.writeLock().lock();
+        try {
+            // Another thread may have flushed while waiting for the lock
+            if (policy.shouldFlush(transaction.componentsInTransactionCount(), System.nanoTime() - transactionOpenedNanos)) {
+                rollTransaction();
+            }
+        } finally {
+            transactionLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Commits the Components pending in the Session Transaction, if any, and continues with a new Transaction. Must
+     * not be called by a thread composing in this Session, since the read lock it holds cannot be upgraded.
+     */
+    void flush() {
+        transactionLock.writeLock().lock();
+        try {
+            if (transaction.componentsInTransactionCount() > 0) {
+                rollTransaction();
+            }
+        } finally {
+            transactionLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Provides the number of Components in the current Session Transaction, i.e., written since the last flush.
+     */
+    int pendingComponentCount() {
+        return transaction.componentsInTransactionCount();
+    }
+
+    private void rollTransaction() {
+        LOG.info("Session {} - Flushing updates to {} Entities with stamp: {}",
                 transaction.hashCode(),
                 transaction.componentsInTransactionCount(),
                 stampEntity);
-        transaction.cancel();
+        sink.flush();
+        transaction.commit();
+        flushedComponentCount += transaction.componentsInTransactionCount();
+        openTransaction();
+    }
+
+    /**
+     * Provides the number of Components written by the Session, including Components already committed by a flush.
+     * This count does not include the STAMPs associated with the Session.
+     */
+    public int componentsInSessionCount() {
+        transactionLock.readLock().lock();
+        try {
+            return flushedComponentCount + transaction.componentsInTransactionCount();
+        } finally {
+            transactionLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Cancels the Transaction and STAMP associated with this Session so that they will not be committed.
+     * Versions already written with the STAMP of this Session are kept, but are not committed. If writes are
+     * deferred, the Components pending in the Session are discarded instead of being written.
+     * @see #deferWrites()
+     */
+    public void cancel() {
+        transactionLock.writeLock().lock();
+        try {
+            LOG.info("Session {} - Cancelling updates to {} Entities with stamp: {}",
+                    transaction.hashCode(),
+                    transaction.componentsInTransactionCount(),
+                    stampEntity);
+            if (statedNavigationIndex != null) {
+                statedNavigationIndex.clear();
+            }
+            if (sink instanceof DeferredSink deferredSink) {
+                deferredSink.discard();
+            } else {
+                sink.flush();
+            }
+            transaction.cancel();
+        } finally {
+            transactionLock.writeLock().unlock();
+        }
     }
 
     /**
@@ -133,15 +577,39 @@ public void cancel() {
      * was not Constructed with a timestamp, then the timestamp will be set to the time of commit.
      */
     protected void commit() {
-        LOG.info("Session {} - Commiting updates to {} Entities with stamp: {}",
-                transaction.hashCode(),
-                transaction.componentsInTransactionCount(),
-                stampEntity);
-        transaction.commit();
+        transactionLock.writeLock().lock();
+        try {
+            if (statedNavigationIndex != null) {
+                int navigationCount = statedNavigationIndex.write(transaction, stampEntity.nid(), sink);
+                LOG.info("Session {} - Derived {} StatedNavigation Semantics", transaction.hashCode(), navigationCount);
+            }
+            LOG.info("Session {} - Commiting updates to {} Entities with stamp: {}",
+                    transaction.hashCode(),
+                    transaction.componentsInTransactionCount(),
+                    stampEntity);
+            sink.flush();
+            transaction.commit();
+        } finally {
+            transactionLock.writeLock().unlock();
+        }
     }
 
+    /**
+     * Provides the name-based UUID derived from the STAMP values of this Session. The UUID is computed on first use,
+     * since Sessions are looked up by {@link SessionKey} rather than by this UUID.
+     */
     protected UUID getId() {
-        return this.id;
+        UUID sessionId = this.id;
+        if (sessionId == null) {
+            sessionId = UuidT5Generator.fromPublicIds(UUID.nameUUIDFromBytes(String.valueOf(time).getBytes()),
+                    status.publicId(), author, module, path);
+            this.id = sessionId;
+        }
+        return sessionId;
+    }
+
+    SessionKey getKey() {
+        return this.key;
     }
 
     public EntityProxy getStamp() {
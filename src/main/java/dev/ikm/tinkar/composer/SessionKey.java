@@ -0,0 +1,35 @@
+/*
+ * Copyright © 2024 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.tinkar.composer;
+
+import dev.ikm.tinkar.terms.State;
+
+/**
+ * Identifies a Session within a Composer by its STAMP values, using the nids of the author, module, and path.
+ * A time of {@code Long.MAX_VALUE} identifies a Session whose STAMP time is set at commit.
+ */
+record SessionKey(State status, long time, int authorNid, int moduleNid, int pathNid) {
+
+    @Override
+    public int hashCode() {
+        int hash = status.ordinal();
+        hash = 31 * hash + Long.hashCode(time);
+        hash = 31 * hash + authorNid;
+        hash = 31 * hash + moduleNid;
+        hash = 31 * hash + pathNid;
+        return hash;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright © 2024 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.tinkar.composer;
+
+import dev.ikm.tinkar.common.id.PublicId;
+import dev.ikm.tinkar.common.id.PublicIds;
+import dev.ikm.tinkar.terms.EntityProxy;
+import dev.ikm.tinkar.terms.EntityProxy.Pattern;
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.ImmutableList;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Derives the deterministic PublicIds of Semantics that a Pattern allows only one of per referenced Component, such as
+ * StatedAxiom and StatedNavigation Semantics. Every id is derived by {@link PublicIds#singleSemanticId(PublicId, PublicId)},
+ * so ids written to the store are always those of the reference implementation.
+ */
+public final class SingleSemanticIds {
+
+    private SingleSemanticIds() {}
+
+    private static final int PARALLEL_BATCH_SIZE = 1024;
+
+    /**
+     * Provides the PublicId of the single Semantic of a Pattern for a referenced Component.
+     * @param pattern the Pattern of the Semantic
+     * @param reference the referenced Component of the Semantic
+     * @return the deterministic PublicId of the Semantic
+     */
+    public static PublicId of(Pattern pattern, EntityProxy reference) {
+        return PublicIds.singleSemanticId(pattern.publicId(), reference.publicId());
+    }
+
+    /**
+     * Provides the PublicId of the single Semantic of a Pattern for each referenced Component. Large batches are
+     * derived in parallel.
+     * @param pattern the Pattern of every Semantic
+     * @param references the referenced Component of each Semantic
+     * @return the deterministic PublicId of each Semantic, in the order of the referenced Components
+     */
+    public static ImmutableList<PublicId> of(Pattern pattern, List<? extends EntityProxy> references) {
+        PublicId patternId = pattern.publicId();
+        PublicId[] semanticIds = new PublicId[references.size()];
+        IntStream indexes = IntStream.range(0, semanticIds.length);
+        if (semanticIds.length >= PARALLEL_BATCH_SIZE) {
+            indexes = indexes.parallel();
+        }
+        indexes.forEach(i -> semanticIds[i] = PublicIds.singleSemanticId(patternId, references.get(i).publicId()));
+        return Lists.immutable.of(semanticIds);
+    }
+}
@@ -15,7 +15,6 @@
  */
 package dev.ikm.tinkar.composer;
 
-import dev.ikm.tinkar.common.id.PublicIds;
 import dev.ikm.tinkar.terms.EntityProxy.Semantic;
 
 public abstract class SingleSemanticTemplate extends SemanticTemplate {
@@ -24,7 +23,7 @@ protected SingleSemanticTemplate() {}
 
     @Override
     protected Semantic defaultSemantic() {
-        return Semantic.make(PublicIds.singleSemanticId(assignPattern().publicId(), getReference().publicId()));
+        return Semantic.make(SingleSemanticIds.of(assignPattern(), getReference()));
     }
 
 }
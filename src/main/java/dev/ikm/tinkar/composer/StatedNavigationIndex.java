@@ -0,0 +1,130 @@
+/*
+ * Copyright © 2024 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.tinkar.composer;
+
+import dev.ikm.tinkar.common.id.IntIdSet;
+import dev.ikm.tinkar.common.id.IntIds;
+import dev.ikm.tinkar.entity.transaction.Transaction;
+import dev.ikm.tinkar.terms.EntityProxy;
+import dev.ikm.tinkar.terms.EntityProxy.Concept;
+import dev.ikm.tinkar.terms.EntityProxy.Semantic;
+import dev.ikm.tinkar.terms.TinkarTerm;
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.factory.primitive.IntObjectMaps;
+import org.eclipse.collections.api.list.ImmutableList;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.map.primitive.MutableIntObjectMap;
+
+import java.util.Arrays;
+
+/**
+ * Collects the isA edges of the StatedAxioms composed in a Session, and writes the StatedNavigation Semantic of every
+ * Concept on either end of an edge in one pass. Each edge is packed into a long, with the child nid in the high bits
+ * and the parent nid in the low bits, so the parents and children of every Concept are grouped by sorting rather than
+ * by maintaining an inverse index while composing.
+ */
+final class StatedNavigationIndex {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private long[] edges = new long[INITIAL_CAPACITY];
+    private int edgeCount;
+
+    synchronized void addParents(int childNid, int[] parentNids) {
+        if (edgeCount + parentNids.length > edges.length) {
+            edges = Arrays.copyOf(edges, Math.max(edges.length * 2, edgeCount + parentNids.length));
+        }
+        for (int parentNid : parentNids) {
+            edges[edgeCount++] = edge(childNid, parentNid);
+        }
+    }
+
+    synchronized void clear() {
+        edges = new long[INITIAL_CAPACITY];
+        edgeCount = 0;
+    }
+
+    /**
+     * Writes a StatedNavigation Semantic for each Concept with a parent or child in this index, and clears the index.
+     * @return the number of StatedNavigation Semantics written
+     */
+    synchronized int write(Transaction transaction, int stampNid, Write.Sink sink) {
+        if (edgeCount == 0) {
+            return 0;
+        }
+        long[] edgesByChild = Arrays.copyOf(edges, edgeCount);
+        long[] edgesByParent = new long[edgeCount];
+        for (int i = 0; i < edgeCount; i++) {
+            edgesByParent[i] = edge(parentNid(edgesByChild[i]), childNid(edgesByChild[i]));
+        }
+        clear();
+        Arrays.parallelSort(edgesByChild);
+        Arrays.parallelSort(edgesByParent);
+
+        // Index 0 holds the children (destinations) and index 1 the parents (origins) of each Concept
+        MutableIntObjectMap<IntIdSet[]> navigation = IntObjectMaps.mutable.empty();
+        group(edgesByChild, navigation, 1);
+        group(edgesByParent, navigation, 0);
+
+        MutableList<EntityProxy> references = Lists.mutable.withInitialCapacity(navigation.size());
+        MutableList<ImmutableList<Object>> fieldValues = Lists.mutable.withInitialCapacity(navigation.size());
+        navigation.forEachKeyValue((conceptNid, navigationNids) -> {
+            references.add(Concept.make(conceptNid));
+            fieldValues.add(Lists.immutable.of(
+                    navigationNids[0] == null ? IntIds.set.empty() : navigationNids[0],
+                    navigationNids[1] == null ? IntIds.set.empty() : navigationNids[1]));
+        });
+        MutableList<Semantic> semantics = SingleSemanticIds.of(TinkarTerm.STATED_NAVIGATION_PATTERN, references)
+                .collect(Semantic::make, Lists.mutable.withInitialCapacity(references.size()));
+        semantics.forEach(transaction::addComponent);
+        Write.semantics(TinkarTerm.STATED_NAVIGATION_PATTERN, stampNid, semantics, references, fieldValues, sink);
+        return semantics.size();
+    }
+
+    /**
+     * Groups sorted edges by their high nid, and stores the distinct low nids of each group at the field index given.
+     */
+    private static void group(long[] sortedEdges, MutableIntObjectMap<IntIdSet[]> navigation, int fieldIndex) {
+        int[] nids = new int[sortedEdges.length];
+        int start = 0;
+        while (start < sortedEdges.length) {
+            int keyNid = childNid(sortedEdges[start]);
+            int nidCount = 0;
+            int end = start;
+            for (; end < sortedEdges.length && childNid(sortedEdges[end]) == keyNid; end++) {
+                // Sorting places duplicate edges next to each other
+                if (end == start || sortedEdges[end] != sortedEdges[end - 1]) {
+                    nids[nidCount++] = parentNid(sortedEdges[end]);
+                }
+            }
+            navigation.getIfAbsentPut(keyNid, () -> new IntIdSet[2])[fieldIndex] =
+                    IntIds.set.of(Arrays.copyOf(nids, nidCount));
+            start = end;
+        }
+    }
+
+    private static long edge(int childNid, int parentNid) {
+        return ((long) childNid << 32) | (parentNid & 0xFFFFFFFFL);
+    }
+
+    private static int childNid(long edge) {
+        return (int) (edge >>> 32);
+    }
+
+    private static int parentNid(long edge) {
+        return (int) edge;
+    }
+}
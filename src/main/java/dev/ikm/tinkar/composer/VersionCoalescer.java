@@ -0,0 +1,165 @@
+/*
+ * Copyright © 2024 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.tinkar.composer;
+
+import dev.ikm.tinkar.common.id.PublicId;
+import dev.ikm.tinkar.entity.ConceptRecord;
+import dev.ikm.tinkar.entity.ConceptRecordBuilder;
+import dev.ikm.tinkar.entity.ConceptVersionRecord;
+import dev.ikm.tinkar.entity.ConceptVersionRecordBuilder;
+import dev.ikm.tinkar.entity.Entity;
+import dev.ikm.tinkar.entity.EntityService;
+import dev.ikm.tinkar.entity.EntityVersion;
+import dev.ikm.tinkar.entity.PatternRecord;
+import dev.ikm.tinkar.entity.PatternRecordBuilder;
+import dev.ikm.tinkar.entity.PatternVersionRecord;
+import dev.ikm.tinkar.entity.PatternVersionRecordBuilder;
+import dev.ikm.tinkar.entity.RecordListBuilder;
+import dev.ikm.tinkar.entity.SemanticRecord;
+import dev.ikm.tinkar.entity.SemanticRecordBuilder;
+import dev.ikm.tinkar.entity.SemanticVersionRecord;
+import dev.ikm.tinkar.entity.SemanticVersionRecordBuilder;
+import org.eclipse.collections.api.factory.primitive.LongLists;
+import org.eclipse.collections.api.list.ImmutableList;
+import org.eclipse.collections.api.list.primitive.ImmutableLongList;
+import org.eclipse.collections.api.list.primitive.MutableLongList;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Holds the Entities written by the Sessions of a Composer and merges the Versions of each nid in memory, so that the
+ * EntityService receives one Chronology per Component when the Entities are flushed, rather than one per Version.
+ * <br />
+ * Versions with the same STAMP replace one another, and the UUIDs of both Chronologies are kept.
+ */
+final class VersionCoalescer implements Write.Sink {
+
+    private final ConcurrentHashMap<Integer, Entity<? extends EntityVersion>> stagedEntities = new ConcurrentHashMap<>();
+
+    @Override
+    public void put(Entity<? extends EntityVersion> entity) {
+        stagedEntities.merge(entity.nid(), entity, VersionCoalescer::merge);
+    }
+
+    /**
+     * Writes the staged Entities to the EntityService. Flushes are serialized so that a Session committing after
+     * another Session's flush begins does not commit before the Entities taken by that flush have been written.
+     */
+    @Override
+    public synchronized void flush() {
+        EntityService entityService = EntityService.get();
+        for (Integer nid : stagedEntities.keySet()) {
+            Entity<? extends EntityVersion> entity = stagedEntities.remove(nid);
+            if (entity != null) {
+                entityService.putEntity(entity);
+            }
+        }
+    }
+
+    private static Entity<? extends EntityVersion> merge(Entity<? extends EntityVersion> staged,
+                                                        Entity<? extends EntityVersion> incoming) {
+        return switch (incoming) {
+            case ConceptRecord conceptRecord -> mergeConcept((ConceptRecord) staged, conceptRecord);
+            case PatternRecord patternRecord -> mergePattern((PatternRecord) staged, patternRecord);
+            case SemanticRecord semanticRecord -> mergeSemantic((SemanticRecord) staged, semanticRecord);
+            default -> throw new IllegalStateException("Cannot merge Versions of " + incoming.getClass().getSimpleName());
+        };
+    }
+
+    private static ConceptRecord mergeConcept(ConceptRecord staged, ConceptRecord incoming) {
+        RecordListBuilder<ConceptVersionRecord> versions = RecordListBuilder.make();
+        ConceptRecord conceptRecord = ConceptRecordBuilder.builder(incoming)
+                .additionalUuidLongs(mergeAdditionalLongs(staged, incoming))
+                .versions(versions)
+                .build();
+        mergeVersions(staged.versions(), incoming.versions(), version ->
+                versions.add(ConceptVersionRecordBuilder.builder(version).chronology(conceptRecord).build()));
+        versions.build();
+        return conceptRecord;
+    }
+
+    private static PatternRecord mergePattern(PatternRecord staged, PatternRecord incoming) {
+        RecordListBuilder<PatternVersionRecord> versions = RecordListBuilder.make();
+        PatternRecord patternRecord = PatternRecordBuilder.builder(incoming)
+                .additionalUuidLongs(mergeAdditionalLongs(staged, incoming))
+                .versions(versions)
+                .build();
+        mergeVersions(staged.versions(), incoming.versions(), version ->
+                versions.add(PatternVersionRecordBuilder.builder(version).chronology(patternRecord).build()));
+        versions.build();
+        return patternRecord;
+    }
+
+    private static SemanticRecord mergeSemantic(SemanticRecord staged, SemanticRecord incoming) {
+        RecordListBuilder<SemanticVersionRecord> versions = RecordListBuilder.make();
+        SemanticRecord semanticRecord = SemanticRecordBuilder.builder(incoming)
+                .additionalUuidLongs(mergeAdditionalLongs(staged, incoming))
+                .versions(versions)
+                .build();
+        mergeVersions(staged.versions(), incoming.versions(), version ->
+                versions.add(SemanticVersionRecordBuilder.builder(version).chronology(semanticRecord).build()));
+        versions.build();
+        return semanticRecord;
+    }
+
+    private static <V extends EntityVersion> void mergeVersions(ImmutableList<V> staged, ImmutableList<V> incoming,
+                                                                Consumer<V> versionConsumer) {
+        for (V stagedVersion : staged) {
+            if (incoming.noneSatisfy(incomingVersion -> incomingVersion.stampNid() == stagedVersion.stampNid())) {
+                versionConsumer.accept(stagedVersion);
+            }
+        }
+        incoming.forEach(versionConsumer);
+    }
+
+    /**
+     * Provides the additional UUID longs of the incoming Chronology, followed by any UUIDs of the staged Chronology
+     * that the incoming Chronology does not already have.
+     */
+    private static ImmutableLongList mergeAdditionalLongs(Entity<?> staged, Entity<?> incoming) {
+        long[] stagedLongs = uuidLongs(staged);
+        long[] incomingLongs = uuidLongs(incoming);
+        MutableLongList additionalLongs = LongLists.mutable.withInitialCapacity(incomingLongs.length + stagedLongs.length - 2);
+        for (int i = 2; i < incomingLongs.length; i++) {
+            additionalLongs.add(incomingLongs[i]);
+        }
+        for (int i = 0; i < stagedLongs.length; i += 2) {
+            if (!containsUuid(incomingLongs, stagedLongs[i], stagedLongs[i + 1])) {
+                additionalLongs.add(stagedLongs[i]);
+                additionalLongs.add(stagedLongs[i + 1]);
+            }
+        }
+        return additionalLongs.toImmutable();
+    }
+
+    private static long[] uuidLongs(Entity<?> entity) {
+        PublicId publicId = entity.publicId();
+        long[] uuidLongs = new long[publicId.uuidCount() * 2];
+        int[] index = {0};
+        publicId.forEach(uuidLong -> uuidLongs[index[0]++] = uuidLong);
+        return uuidLongs;
+    }
+
+    private static boolean containsUuid(long[] uuidLongs, long mostSignificantBits, long leastSignificantBits) {
+        for (int i = 0; i < uuidLongs.length; i += 2) {
+            if (uuidLongs[i] == mostSignificantBits && uuidLongs[i + 1] == leastSignificantBits) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
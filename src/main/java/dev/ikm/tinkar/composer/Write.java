@@ -29,8 +29,11 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.LongConsumer;
 
 public class Write {
 
@@ -40,142 +43,331 @@ private Write() {}
 
     public record PatternDefinition(Concept meaning, Concept purpose, Concept datatype, int index) {}
 
-    private static long[] createAdditionalLongs(PublicId publicId) {
-        long[] additionalLongs = new long[(publicId.uuidCount() * 2) - 2];
+    /**
+     * Receives the Entities built by Write. The default Sink hands each Entity to the EntityService as soon as it is
+     * built, while a Session may supply a Sink that holds Entities until the Session is flushed or committed.
+     */
+    public interface Sink {
+        Sink ENTITY_SERVICE = entity -> EntityService.get().putEntity(entity);
+
+        void put(Entity<? extends EntityVersion> entity);
+
+        /**
+         * Writes any Entities held by this Sink to the EntityService.
+         */
+        default void flush() {}
+    }
+
+    /**
+     * Copies the UUID bits of a PublicId in a single pass, without materializing intermediate UUID objects.
+     * The first UUID is kept as the primordial most/least significant bits and the remainder become the
+     * additional UUID longs of the record.
+     */
+    private static final class UuidLongs implements LongConsumer {
+        private final long[] additionalLongs;
+        private long mostSignificantBits;
+        private long leastSignificantBits;
+        private int index = -2;
+
+        private UuidLongs(PublicId publicId) {
+            this.additionalLongs = new long[(publicId.uuidCount() * 2) - 2];
+            publicId.forEach(this);
+        }
+
+        @Override
+        public void accept(long uuidLong) {
+            switch (index) {
+                case -2 -> mostSignificantBits = uuidLong;
+                case -1 -> leastSignificantBits = uuidLong;
+                default -> additionalLongs[index] = uuidLong;
+            }
+            index++;
+        }
+
+        private ImmutableLongList additionalLongs() {
+            return additionalLongs.length == 0 ? LongLists.immutable.empty() : LongLists.immutable.of(additionalLongs);
+        }
+    }
+
+    /**
+     * Resolves the nid of each Component provided before its records are written, so that writing them uses nids
+     * already held by their proxies rather than assigning or looking up one nid per record.
+     * @param components the Components a batch will write or refer to
+     * @see #registerNids(PublicId, Pattern, List, List)
+     */
+    public static void registerNids(List<? extends EntityProxy> components) {
+        registerNids(null, null, components, List.of());
+    }
+
+    /**
+     * Resolves the nids of a batch of Components, and of the Pattern and STAMP they are written with, before their
+     * records are written. The identifiers are sorted by their first UUID and resolved one after another by the calling
+     * thread, so the UUID to nid map is walked in order once per batch rather than at random once per record.
+     * <br /><br />
+     * Components whose PublicId has no nid yet are assigned one, so every Component of a batch is registered in this
+     * pass even if writing it fails later.
+     * @param stampId the PublicId of the STAMP the batch is written with, or null
+     * @param pattern the Pattern of the Semantics in the batch, or null for a batch of Concepts
+     * @param components the Components the batch will write
+     * @param references the Components the batch refers to
+     */
+    public static void registerNids(PublicId stampId, Pattern pattern, List<? extends EntityProxy> components,
+                                    List<? extends EntityProxy> references) {
+        int registeredNidCount = components.size() + references.size() + (stampId == null ? 0 : 1) + (pattern == null ? 0 : 1);
+        if (registeredNidCount == 0) {
+            return;
+        }
+        RegisteredNid[] registeredNids = new RegisteredNid[registeredNidCount];
         int index = 0;
-        for (int i = 1; i < publicId.uuidCount(); i++) {
-            UUID uuid = publicId.asUuidArray()[i];
-            additionalLongs[index++] = uuid.getMostSignificantBits();
-            additionalLongs[index++] = uuid.getLeastSignificantBits();
+        for (EntityProxy component : components) {
+            registeredNids[index++] = RegisteredNid.of(component);
+        }
+        for (EntityProxy reference : references) {
+            registeredNids[index++] = RegisteredNid.of(reference);
+        }
+        if (pattern != null) {
+            registeredNids[index++] = RegisteredNid.of(pattern);
+        }
+        if (stampId != null) {
+            registeredNids[index] = new RegisteredNid(stampId.asUuidArray()[0], stampId, null);
+        }
+        Arrays.sort(registeredNids);
+        for (RegisteredNid registeredNid : registeredNids) {
+            registeredNid.register();
         }
-        return additionalLongs.length == 0 ? null : additionalLongs;
     }
 
-    public static void concept(Concept concept, PublicId stampId) {
-        //Pull out primordial UUID from PublicId
-        UUID primordialUUID = concept.asUuidArray()[0];
+    /**
+     * A Component, or a STAMP given only by its PublicId, whose nid is resolved during registration.
+     */
+    private record RegisteredNid(UUID uuid, PublicId publicId, EntityProxy component) implements Comparable<RegisteredNid> {
 
-        //Process additional UUID longs from PublicId
-        ImmutableLongList additionalLongs = LongLists.immutable.of(createAdditionalLongs(concept));
+        static RegisteredNid of(EntityProxy component) {
+            PublicId publicId = component.publicId();
+            return new RegisteredNid(publicId.asUuidArray()[0], publicId, component);
+        }
 
-        //Create empty version list
-        RecordListBuilder<ConceptVersionRecord> versions = RecordListBuilder.make();
+        void register() {
+            // Proxies keep the nid they resolve, so writing them later does not look it up again
+            if (component != null) {
+                component.nid();
+            } else {
+                EntityService.get().nidForPublicId(publicId);
+            }
+        }
 
+        @Override
+        public int compareTo(RegisteredNid other) {
+            return uuid.compareTo(other.uuid);
+        }
+    }
+
+    public static void concept(Concept concept, PublicId stampId) {
         //Assign nids for PublicIds
-        int stampNid = EntityService.get().nidForPublicId(stampId);
+        concept(concept, EntityService.get().nidForPublicId(stampId));
+    }
+
+    public static void concept(Concept concept, int stampNid) {
+        concept(concept, stampNid, Sink.ENTITY_SERVICE);
+    }
+
+    public static void concept(Concept concept, int stampNid, Sink sink) {
+        sink.put(conceptEntity(concept, stampNid));
+    }
+
+    /**
+     * Writes a Version of each Concept with the same STAMP. The Concept records are built in one pass and then
+     * handed to the EntityService together.
+     * @param concepts the Concepts to write
+     * @param stampNid the nid of the STAMP for every Concept Version
+     */
+    public static void concepts(List<? extends Concept> concepts, int stampNid) {
+        concepts(concepts, stampNid, Sink.ENTITY_SERVICE);
+    }
+
+    /**
+     * Writes a Version of each Concept with the same STAMP to the Sink provided.
+     * @see #concepts(List, int)
+     */
+    public static void concepts(List<? extends Concept> concepts, int stampNid, Sink sink) {
+        List<Entity<? extends EntityVersion>> conceptEntities = new ArrayList<>(concepts.size());
+        for (Concept concept : concepts) {
+            conceptEntities.add(conceptEntity(concept, stampNid));
+        }
+        putEntities(conceptEntities, sink);
+    }
+
+    private static ConceptEntity<? extends ConceptEntityVersion> conceptEntity(Concept concept, int stampNid) {
+        //Copy primordial and additional UUID bits from PublicId
+        UuidLongs uuidLongs = new UuidLongs(concept.publicId());
+        ImmutableLongList additionalLongs = uuidLongs.additionalLongs();
+
+        //Create version list, populated once the Concept Chronology exists
+        RecordListBuilder<ConceptVersionRecord> versions = RecordListBuilder.make();
 
         //Create Concept Chronology
         ConceptRecord conceptRecord = ConceptRecordBuilder.builder()
                 .nid(concept.nid())
-                .leastSignificantBits(primordialUUID.getLeastSignificantBits())
-                .mostSignificantBits(primordialUUID.getMostSignificantBits())
+                .leastSignificantBits(uuidLongs.leastSignificantBits)
+                .mostSignificantBits(uuidLongs.mostSignificantBits)
                 .additionalUuidLongs(additionalLongs)
                 .versions(versions)
                 .build();
 
-        //Append Concept Version
-        versions.add(ConceptVersionRecordBuilder.builder()
+        //Append Concept Version and seal the version list held by the Chronology
+        versions.addAndBuild(ConceptVersionRecordBuilder.builder()
                 .chronology(conceptRecord)
                 .stampNid(stampNid)
                 .build());
-
-        //Rebuild the ConceptRecord with the now populated version data
-        ConceptEntity<? extends ConceptEntityVersion> conceptEntity = ConceptRecordBuilder.builder(conceptRecord).versions(versions.toImmutable()).build();
-        EntityService.get().putEntity(conceptEntity);
+        return conceptRecord;
     }
 
     public static void pattern(Pattern pattern, PublicId stampId,
                                Concept meaning, Concept purpose,
                                List<PatternDefinition> patternDefinitions){
-        //Pull out primordial UUID from PublicId
-        UUID primordialUUID = pattern.asUuidArray()[0];
+        //Assign nids for PublicIds
+        pattern(pattern, EntityService.get().nidForPublicId(stampId), meaning, purpose, patternDefinitions);
+    }
+
+    public static void pattern(Pattern pattern, int stampNid,
+                               Concept meaning, Concept purpose,
+                               List<PatternDefinition> patternDefinitions){
+        pattern(pattern, stampNid, meaning, purpose, patternDefinitions, Sink.ENTITY_SERVICE);
+    }
 
-        //Process additional UUID longs from PublicId
-        ImmutableLongList additionalLongs = LongLists.immutable.of(createAdditionalLongs(pattern));
+    public static void pattern(Pattern pattern, int stampNid,
+                               Concept meaning, Concept purpose,
+                               List<PatternDefinition> patternDefinitions, Sink sink){
+        sink.put(patternEntity(pattern, stampNid, meaning, purpose, patternDefinitions));
+    }
 
-        //Create empty version list
-        RecordListBuilder<PatternVersionRecord> versions = RecordListBuilder.make();
+    private static PatternEntity<? extends PatternEntityVersion> patternEntity(Pattern pattern, int stampNid,
+                                                                             Concept meaning, Concept purpose,
+                                                                             List<PatternDefinition> patternDefinitions) {
+        //Copy primordial and additional UUID bits from PublicId
+        UuidLongs uuidLongs = new UuidLongs(pattern.publicId());
+        ImmutableLongList additionalLongs = uuidLongs.additionalLongs();
 
-        //Assign nids for PublicIds
-        int stampNid = EntityService.get().nidForPublicId(stampId);
+        //Create version list, populated once the Pattern Chronology exists
+        RecordListBuilder<PatternVersionRecord> versions = RecordListBuilder.make();
 
         //Create Pattern Chronology
         PatternRecord patternRecord = PatternRecordBuilder.builder()
                 .nid(pattern.nid())
-                .leastSignificantBits(primordialUUID.getLeastSignificantBits())
-                .mostSignificantBits(primordialUUID.getMostSignificantBits())
+                .leastSignificantBits(uuidLongs.leastSignificantBits)
+                .mostSignificantBits(uuidLongs.mostSignificantBits)
                 .additionalUuidLongs(additionalLongs)
-                .versions(versions.toImmutable())
+                .versions(versions)
                 .build();
 
         //Create individual pattern definitions
-        MutableList<FieldDefinitionRecord> fieldDefinitions = Lists.mutable.empty();
+        MutableList<FieldDefinitionRecord> fieldDefinitions = Lists.mutable.withInitialCapacity(patternDefinitions.size());
         patternDefinitions.forEach(patternDefinition -> {
-            int meaningNid = EntityService.get().nidForPublicId(patternDefinition.meaning());
-            int purposeNid = EntityService.get().nidForPublicId(patternDefinition.purpose());
-            int dataTypeNid = EntityService.get().nidForPublicId(patternDefinition.datatype());
-
             FieldDefinitionRecord fieldDefinitionRecord = FieldDefinitionRecordBuilder.builder()
                     .patternNid(pattern.nid())
-                    .meaningNid(meaningNid)
-                    .purposeNid(purposeNid)
-                    .dataTypeNid(dataTypeNid)
+                    .meaningNid(patternDefinition.meaning().nid())
+                    .purposeNid(patternDefinition.purpose().nid())
+                    .dataTypeNid(patternDefinition.datatype().nid())
                     .indexInPattern(patternDefinition.index())
                     .patternVersionStampNid(stampNid)
                     .build();
             fieldDefinitions.add(fieldDefinitionRecord);
         });
 
-        //Append new Pattern Version
-        versions.add(PatternVersionRecordBuilder.builder()
+        //Append new Pattern Version and seal the version list held by the Chronology
+        versions.addAndBuild(PatternVersionRecordBuilder.builder()
                 .chronology(patternRecord)
                 .stampNid(stampNid)
                 .semanticMeaningNid(meaning.nid())
                 .semanticPurposeNid(purpose.nid())
                 .fieldDefinitions(fieldDefinitions.toImmutable())
                 .build());
-
-        //Rebuild the Pattern with the now populated version data
-        PatternEntity<? extends PatternEntityVersion> patternEntity = PatternRecordBuilder.builder(patternRecord).versions(versions.toImmutable()).build();
-        EntityService.get().putEntity(patternEntity);
+        return patternRecord;
     }
 
     public static void semantic(Semantic semantic, PublicId stampId, EntityProxy referencedComponent, Pattern pattern, ImmutableList<Object> fieldValues) {
-        //Assign primordial UUID from PublicId
-        UUID primordialUUID = semantic.asUuidArray()[0];
+        //Assign nids for PublicIds
+        semantic(semantic, EntityService.get().nidForPublicId(stampId), referencedComponent, pattern, fieldValues);
+    }
 
-        //Process additional UUID longs from PublicId
-        ImmutableLongList additionalLongs = LongLists.immutable.of(createAdditionalLongs(semantic));
+    public static void semantic(Semantic semantic, int stampNid, EntityProxy referencedComponent, Pattern pattern, ImmutableList<Object> fieldValues) {
+        semantic(semantic, stampNid, referencedComponent, pattern, fieldValues, Sink.ENTITY_SERVICE);
+    }
 
-        //Create empty version list
-        RecordListBuilder<SemanticVersionRecord> versions = RecordListBuilder.make();
+    public static void semantic(Semantic semantic, int stampNid, EntityProxy referencedComponent, Pattern pattern, ImmutableList<Object> fieldValues, Sink sink) {
+        sink.put(semanticEntity(semantic, stampNid, referencedComponent.nid(), pattern.nid(), fieldValues));
+    }
 
-        //Assign nids for PublicIds
-        int stampNid = EntityService.get().nidForPublicId(stampId);
+    /**
+     * Writes a Version of each Semantic with the same Pattern and STAMP. The lists are read as columns, so the
+     * Semantic, referenced Component, and field values at each index describe one Semantic. The Semantic records are
+     * built in one pass and then handed to the EntityService together.
+     * @param pattern the Pattern of every Semantic
+     * @param stampNid the nid of the STAMP for every Semantic Version
+     * @param semantics the Semantics to write
+     * @param referencedComponents the referenced Component of each Semantic
+     * @param fieldValues the field values of each Semantic
+     */
+    public static void semantics(Pattern pattern, int stampNid,
+                                 List<? extends Semantic> semantics,
+                                 List<? extends EntityProxy> referencedComponents,
+                                 List<ImmutableList<Object>> fieldValues) {
+        semantics(pattern, stampNid, semantics, referencedComponents, fieldValues, Sink.ENTITY_SERVICE);
+    }
+
+    /**
+     * Writes a Version of each Semantic with the same Pattern and STAMP to the Sink provided.
+     * @see #semantics(Pattern, int, List, List, List)
+     */
+    public static void semantics(Pattern pattern, int stampNid,
+                                 List<? extends Semantic> semantics,
+                                 List<? extends EntityProxy> referencedComponents,
+                                 List<ImmutableList<Object>> fieldValues, Sink sink) {
+        if (semantics.size() != referencedComponents.size() || semantics.size() != fieldValues.size()) {
+            throw new IllegalArgumentException("Semantics, referenced components, and field values must be the same size");
+        }
+        int patternNid = pattern.nid();
+        List<Entity<? extends EntityVersion>> semanticEntities = new ArrayList<>(semantics.size());
+        for (int i = 0; i < semantics.size(); i++) {
+            semanticEntities.add(semanticEntity(semantics.get(i), stampNid, referencedComponents.get(i).nid(), patternNid, fieldValues.get(i)));
+        }
+        putEntities(semanticEntities, sink);
+    }
+
+    private static SemanticEntity<? extends SemanticEntityVersion> semanticEntity(Semantic semantic, int stampNid,
+                                                                                int referencedComponentNid, int patternNid,
+                                                                                ImmutableList<Object> fieldValues) {
+        //Copy primordial and additional UUID bits from PublicId
+        UuidLongs uuidLongs = new UuidLongs(semantic.publicId());
+        ImmutableLongList additionalLongs = uuidLongs.additionalLongs();
+
+        //Create version list, populated once the Semantic Chronology exists
+        RecordListBuilder<SemanticVersionRecord> versions = RecordListBuilder.make();
 
         //Create Semantic Chronology
         SemanticRecord semanticRecord = SemanticRecordBuilder.builder()
                 .nid(semantic.nid())
-                .leastSignificantBits(primordialUUID.getLeastSignificantBits())
-                .mostSignificantBits(primordialUUID.getMostSignificantBits())
+                .leastSignificantBits(uuidLongs.leastSignificantBits)
+                .mostSignificantBits(uuidLongs.mostSignificantBits)
                 .additionalUuidLongs(additionalLongs)
-                .patternNid(pattern.nid())
-                .referencedComponentNid(referencedComponent.nid())
-                .versions(versions.toImmutable())
+                .patternNid(patternNid)
+                .referencedComponentNid(referencedComponentNid)
+                .versions(versions)
                 .build();
 
-        //Append new Semantic Version
-        versions.add(SemanticVersionRecordBuilder.builder()
+        //Append new Semantic Version and seal the version list held by the Chronology
+        versions.addAndBuild(SemanticVersionRecordBuilder.builder()
                 .chronology(semanticRecord)
                 .stampNid(stampNid)
                 .fieldValues(fieldValues)
                 .build());
+        return semanticRecord;
+    }
 
-        //Rebuild the Semantic with the now populated version data
-        SemanticEntity<? extends SemanticEntityVersion> semanticEntity = SemanticRecordBuilder
-                .builder(semanticRecord)
-                .versions(versions.toImmutable()).build();
-        EntityService.get().putEntity(semanticEntity);
+    private static void putEntities(List<Entity<? extends EntityVersion>> entities, Sink sink) {
+        for (Entity<? extends EntityVersion> entity : entities) {
+            sink.put(entity);
+        }
     }
 
 }
@@ -21,6 +21,8 @@
 import dev.ikm.tinkar.composer.Write;
 import dev.ikm.tinkar.terms.EntityProxy;
 import dev.ikm.tinkar.terms.EntityProxy.Concept;
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.MutableList;
 
 import java.util.UUID;
 
@@ -29,6 +31,7 @@ public class ConceptAssembler extends Attachable {
     public ConceptAssembler() {}
 
     private Concept concept;
+    private final MutableList<UUID> addedUuids = Lists.mutable.empty();
 
     /**
      * Sets the Concept Proxy containing the PublicId for the Concept Entity being assembled.
@@ -39,12 +42,23 @@ public ConceptAssembler() {}
      */
     public ConceptAssembler concept(Concept concept) {
         this.concept = concept;
+        addedUuids.clear();
         return this;
     }
 
     protected Concept concept() {
         if (concept == null) {
             concept = Concept.make(PublicIds.newRandom());
+        } else if (addedUuids.notEmpty()) {
+            // Apply UUIDs appended through addUuid in a single rebuild of the PublicId
+            UUID[] existingUuids = concept.publicId().asUuidArray();
+            UUID[] uuids = new UUID[existingUuids.length + addedUuids.size()];
+            System.arraycopy(existingUuids, 0, uuids, 0, existingUuids.length);
+            for (int i = 0; i < addedUuids.size(); i++) {
+                uuids[existingUuids.length + i] = addedUuids.get(i);
+            }
+            concept = Concept.make(concept.description(), PublicIds.of(uuids));
+            addedUuids.clear();
         }
         return concept;
     }
@@ -56,11 +70,14 @@ protected Concept concept() {
      */
     public ConceptAssembler publicId(PublicId publicId) {
         concept = Concept.make(publicId);
+        addedUuids.clear();
         return this;
     }
 
     /**
      * Adds a UUID to the current PublicId for the Concept Entity being assembled.
+     * <br />
+     * Added UUIDs are collected and applied to the PublicId once, when the Concept is next resolved.
      * @param uuid
      * @return the ConceptAssembler for further method chaining
      */
@@ -68,12 +85,7 @@ public ConceptAssembler addUuid(UUID uuid) {
         if (concept==null) {
             concept = Concept.make(PublicIds.of(uuid));
         } else {
-            UUID[] oldUuids = concept.publicId().asUuidArray();
-            UUID[] newUuids = new UUID[oldUuids.length + 1];
-            System.arraycopy(oldUuids, 0, newUuids, 0, oldUuids.length);
-            newUuids[newUuids.length-1] = uuid;
-            PublicId newPublicId = PublicIds.of(newUuids);
-            concept = Concept.make(concept.description(), newPublicId);
+            addedUuids.add(uuid);
         }
         return this;
     }
@@ -87,7 +99,7 @@ protected EntityProxy asReferenceComponent() {
     protected void validateAndWrite() {
         validate();
         super.getSessionTransaction().addComponent(concept());
-        Write.concept(concept(), super.getSessionStampEntity());
+        Write.concept(concept(), super.getSessionStampEntity().nid(), super.getSessionSink());
     }
 
     @Override
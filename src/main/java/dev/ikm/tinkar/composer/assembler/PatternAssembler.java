@@ -122,7 +122,7 @@ protected EntityProxy asReferenceComponent() {
     protected void validateAndWrite() {
         validate();
         super.getSessionTransaction().addComponent(pattern());
-        Write.pattern(pattern(), super.getSessionStampEntity(), meaning(), purpose(), fieldDefinitions());
+        Write.pattern(pattern(), super.getSessionStampEntity().nid(), meaning(), purpose(), fieldDefinitions(), super.getSessionSink());
     }
 
     @Override
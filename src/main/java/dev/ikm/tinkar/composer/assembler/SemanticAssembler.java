@@ -102,8 +102,10 @@ protected EntityProxy asReferenceComponent() {
     @Override
     protected void validateAndWrite() {
         validate();
+        ImmutableList<Object> fieldValues = fieldValues();
+        validateFieldValues(pattern(), fieldValues);
         super.getSessionTransaction().addComponent(semantic());
-        Write.semantic(semantic(), super.getSessionStampEntity(), getReference(), pattern(), fieldValues());
+        Write.semantic(semantic(), super.getSessionStampEntity().nid(), getReference(), pattern(), fieldValues, super.getSessionSink());
     }
 
     @Override
@@ -0,0 +1,323 @@
+/*
+ * Copyright © 2024 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.tinkar.composer.generator;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Generates a SemanticTemplate for each interface annotated with {@link TemplatePattern}. The generated template has
+ * a typed setter per field, holds primitive fields unboxed until the Semantic is written, refers to its Pattern
+ * through a constant, and validates that required fields are set. Field types are checked when the interface is
+ * compiled, so an unsupported field type or malformed Pattern UUID is a compile error rather than a failed write.
+ * <br /><br />
+ * Supported field types are String, int, long, float, boolean, byte[], Instant, BigDecimal, Components (e.g.,
+ * EntityProxy.Concept), IntIdList, IntIdSet, DiTreeEntity, and DiGraphEntity.
+ * <br /><br />
+ * The processor is not registered as a service, so builds enable it by name, e.g., with the maven-compiler-plugin:
+ * <pre>{@code
+ *    <annotationProcessors>
+ *        <annotationProcessor>dev.ikm.tinkar.composer.generator.SemanticTemplateProcessor</annotationProcessor>
+ *    </annotationProcessors>
+ * }</pre>
+ */
+public class SemanticTemplateProcessor extends AbstractProcessor {
+
+    private static final Set<String> REFERENCE_FIELD_TYPES = Set.of(
+            "java.lang.String",
+            "java.time.Instant",
+            "java.math.BigDecimal");
+
+    private static final List<String> REFERENCE_FIELD_SUPERTYPES = List.of(
+            "dev.ikm.tinkar.terms.EntityFacade",
+            "dev.ikm.tinkar.common.id.IntIdList",
+            "dev.ikm.tinkar.common.id.IntIdSet",
+            "dev.ikm.tinkar.entity.graph.DiTreeEntity",
+            "dev.ikm.tinkar.entity.graph.DiGraphEntity");
+
+    // Methods of SemanticTemplate that a generated setter must not overload
+    private static final Set<String> RESERVED_FIELD_NAMES = Set.of(
+            "semantic", "reset", "attach", "validate", "validateAndWrite", "assignPattern", "assignFieldValues");
+
+    private record Field(String name, TypeMirror type, boolean primitive, boolean optional, boolean internable) {}
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Set.of(TemplatePattern.class.getCanonicalName());
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnvironment) {
+        for (Element element : roundEnvironment.getElementsAnnotatedWith(TemplatePattern.class)) {
+            if (element.getKind() != ElementKind.INTERFACE) {
+                error(element, "@TemplatePattern may only be applied to an interface");
+                continue;
+            }
+            TypeElement patternInterface = (TypeElement) element;
+            TemplatePattern templatePattern = patternInterface.getAnnotation(TemplatePattern.class);
+            List<Field> fields = fields(patternInterface);
+            if (fields == null || !validPatternUuids(patternInterface, templatePattern.pattern())) {
+                continue;
+            }
+            writeTemplate(patternInterface, templatePattern, fields);
+        }
+        return true;
+    }
+
+    private boolean validPatternUuids(TypeElement patternInterface, String[] patternUuids) {
+        if (patternUuids.length == 0) {
+            error(patternInterface, "@TemplatePattern requires at least one Pattern UUID");
+            return false;
+        }
+        for (String patternUuid : patternUuids) {
+            try {
+                UUID.fromString(patternUuid);
+            } catch (IllegalArgumentException e) {
+                error(patternInterface, "Invalid Pattern UUID: " + patternUuid);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Provides the fields declared by the abstract methods of the interface, or null if any field is invalid.
+     */
+    private List<Field> fields(TypeElement patternInterface) {
+        List<Field> fields = new ArrayList<>();
+        boolean valid = true;
+        for (ExecutableElement method : ElementFilter.methodsIn(patternInterface.getEnclosedElements())) {
+            if (!method.getModifiers().contains(Modifier.ABSTRACT)) {
+                continue;
+            }
+            String name = method.getSimpleName().toString();
+            TypeMirror type = method.getReturnType();
+            TemplateField templateField = method.getAnnotation(TemplateField.class);
+            boolean intern = templateField != null && templateField.intern();
+            if (!method.getParameters().isEmpty()) {
+                error(method, "Pattern field " + name + " must not have parameters");
+                valid = false;
+            } else if (RESERVED_FIELD_NAMES.contains(name)) {
+                error(method, "Pattern field " + name + " conflicts with a SemanticTemplate method");
+                valid = false;
+            } else if (!supported(type)) {
+                error(method, "Pattern field " + name + " has unsupported type " + type);
+                valid = false;
+            } else if (intern && !isSubtype(type, "java.lang.String")) {
+                error(method, "Pattern field " + name + " can only be interned if it is a String");
+                valid = false;
+            } else {
+                fields.add(new Field(name, type, type.getKind().isPrimitive(),
+                        templateField != null && templateField.optional(), intern));
+            }
+        }
+        if (fields.isEmpty() && valid) {
+            error(patternInterface, "@TemplatePattern requires at least one field");
+            valid = false;
+        }
+        return valid ? fields : null;
+    }
+
+    private boolean supported(TypeMirror type) {
+        return switch (type.getKind()) {
+            case INT, LONG, FLOAT, BOOLEAN -> true;
+            case ARRAY -> ((ArrayType) type).getComponentType().getKind() == TypeKind.BYTE;
+            case DECLARED -> REFERENCE_FIELD_TYPES.contains(erasure(type))
+                    || REFERENCE_FIELD_SUPERTYPES.stream().anyMatch(supertype -> isSubtype(type, supertype));
+            default -> false;
+        };
+    }
+
+    private String erasure(TypeMirror type) {
+        return processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+    private boolean isSubtype(TypeMirror type, String supertypeName) {
+        TypeElement supertype = processingEnv.getElementUtils().getTypeElement(supertypeName);
+        return supertype != null && type.getKind() == TypeKind.DECLARED
+                && processingEnv.getTypeUtils().isAssignable(type, processingEnv.getTypeUtils().erasure(supertype.asType()));
+    }
+
+    private void writeTemplate(TypeElement patternInterface, TemplatePattern templatePattern, List<Field> fields) {
+        PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(patternInterface);
+        String packageName = packageElement.isUnnamed() ? "" : packageElement.getQualifiedName().toString();
+        String templateName = templatePattern.name().isEmpty()
+                ? patternInterface.getSimpleName() + "Template"
+                : templatePattern.name();
+        String qualifiedName = packageName.isEmpty() ? templateName : packageName + "." + templateName;
+        Filer filer = processingEnv.getFiler();
+        try (Writer writer = filer.createSourceFile(qualifiedName, patternInterface).openWriter()) {
+            writer.write(templateSource(patternInterface, packageName, templateName, templatePattern.pattern(), fields));
+        } catch (IOException e) {
+            error(patternInterface, "Failed to write " + qualifiedName + ": " + e.getMessage());
+        }
+    }
+
+    private String templateSource(TypeElement patternInterface, String packageName, String templateName,
+                                  String[] patternUuids, List<Field> fields) {
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("import dev.ikm.tinkar.common.id.PublicIds;\n")
+                .append("import dev.ikm.tinkar.composer.SemanticTemplate;\n")
+                .append("import dev.ikm.tinkar.terms.EntityProxy.Pattern;\n")
+                .append("import dev.ikm.tinkar.terms.EntityProxy.Semantic;\n")
+                .append("import org.eclipse.collections.api.factory.Lists;\n")
+                .append("import org.eclipse.collections.api.list.ImmutableList;\n\n")
+                .append("import java.util.UUID;\n\n");
+
+        source.append("/**\n")
+                .append(" * SemanticTemplate generated by SemanticTemplateProcessor from {@link ")
+                .append(patternInterface.getQualifiedName()).append("}. Do not edit.\n")
+                .append(" */\n")
+                .append("public class ").append(templateName).append(" extends SemanticTemplate {\n\n");
+
+        source.append("    private static final Pattern PATTERN = Pattern.make(PublicIds.of(");
+        for (int i = 0; i < patternUuids.length; i++) {
+            source.append(i == 0 ? "" : ", ").append("UUID.fromString(\"").append(patternUuids[i]).append("\")");
+        }
+        source.append("));\n\n");
+
+        for (Field field : fields) {
+            source.append("    private ").append(field.type()).append(' ').append(field.name()).append(";\n");
+            if (field.primitive() && !field.optional()) {
+                source.append("    private boolean ").append(field.name()).append("Set;\n");
+            }
+        }
+        source.append("\n    public ").append(templateName).append("() {}\n");
+
+        for (Field field : fields) {
+            source.append("\n    /**\n")
+                    .append("     * Sets the ").append(field.name()).append(" field of the Semantic.\n")
+                    .append("     * @param ").append(field.name()).append(" the ").append(field.name()).append(" value\n")
+                    .append("     * @return the ").append(templateName).append(" for further method chaining\n")
+                    .append("     */\n")
+                    .append("    public ").append(templateName).append(' ').append(field.name())
+                    .append('(').append(field.type()).append(' ').append(field.name()).append(") {\n")
+                    .append("        this.").append(field.name()).append(" = ").append(field.name()).append(";\n");
+            if (field.primitive() && !field.optional()) {
+                source.append("        this.").append(field.name()).append("Set = true;\n");
+            }
+            source.append("        return this;\n")
+                    .append("    }\n");
+        }
+
+        source.append("\n    @Override\n")
+                .append("    public ").append(templateName).append(" reset() {\n")
+                .append("        super.reset();\n");
+        for (Field field : fields) {
+            source.append("        this.").append(field.name()).append(" = ").append(defaultValue(field.type())).append(";\n");
+            if (field.primitive() && !field.optional()) {
+                source.append("        this.").append(field.name()).append("Set = false;\n");
+            }
+        }
+        source.append("        return this;\n")
+                .append("    }\n");
+
+        source.append("\n    @Override\n")
+                .append("    public ").append(templateName).append(" semantic(Semantic semantic) {\n")
+                .append("        this.setSemantic(semantic);\n")
+                .append("        return this;\n")
+                .append("    }\n");
+
+        source.append("\n    @Override\n")
+                .append("    protected Pattern assignPattern() {\n")
+                .append("        return PATTERN;\n")
+                .append("    }\n");
+
+        source.append("\n    @Override\n")
+                .append("    protected ImmutableList<Object> assignFieldValues() {\n")
+                .append("        return Lists.immutable.<Object>of(");
+        for (int i = 0; i < fields.size(); i++) {
+            Field field = fields.get(i);
+            source.append(i == 0 ? "" : ", ");
+            if (field.internable()) {
+                source.append("internFieldValue(").append(field.name()).append(')');
+            } else {
+                source.append(field.name());
+            }
+        }
+        source.append(");\n")
+                .append("    }\n");
+
+        List<String> requiredChecks = new ArrayList<>();
+        List<String> requiredNames = new ArrayList<>();
+        for (Field field : fields) {
+            if (field.optional()) {
+                continue;
+            }
+            requiredChecks.add(field.primitive() ? "!" + field.name() + "Set" : field.name() + " == null");
+            requiredNames.add(field.name());
+        }
+        source.append("\n    @Override\n")
+                .append("    protected void validate() throws IllegalArgumentException {\n");
+        if (!requiredChecks.isEmpty()) {
+            source.append("        if (").append(String.join(" || ", requiredChecks)).append(") {\n")
+                    .append("            throw new IllegalArgumentException(\"").append(templateName).append(" requires ")
+                    .append(joinNames(requiredNames)).append("\");\n")
+                    .append("        }\n");
+        }
+        source.append("    }\n")
+                .append("}\n");
+        return source.toString();
+    }
+
+    private static String defaultValue(TypeMirror type) {
+        return switch (type.getKind()) {
+            case INT, LONG, FLOAT -> "0";
+            case BOOLEAN -> "false";
+            default -> "null";
+        };
+    }
+
+    private static String joinNames(List<String> names) {
+        if (names.size() <= 2) {
+            return String.join(" and ", names);
+        }
+        return String.join(", ", names.subList(0, names.size() - 1)) + ", and " + names.getLast();
+    }
+
+    private void error(Element element, String message) {
+        Messager messager = processingEnv.getMessager();
+        messager.printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright © 2024 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.tinkar.composer.generator;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Configures a field of a {@link TemplatePattern} interface.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.METHOD)
+public @interface TemplateField {
+
+    /**
+     * Indicates whether the generated SemanticTemplate may be written without a value for this field. Unset optional
+     * fields are written as null, or as zero (false) for primitive fields.
+     */
+    boolean optional() default false;
+
+    /**
+     * Indicates whether values of this String field are shared across a Session that interns field values. Only
+     * fields whose values repeat across Semantics (e.g., codes or units) should be interned.
+     * @see dev.ikm.tinkar.composer.Session#internFieldValues()
+     */
+    boolean intern() default false;
+}
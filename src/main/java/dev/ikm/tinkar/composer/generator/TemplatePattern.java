@@ -0,0 +1,53 @@
+/*
+ * Copyright © 2024 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.tinkar.composer.generator;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the fields of a Pattern as the abstract methods of an interface, from which
+ * {@link SemanticTemplateProcessor} generates a typed SemanticTemplate at compile time. Fields are taken in declaration
+ * order, so the first method is the field at index 0, and each method's return type is the Java type of the field.
+ * <pre>{@code
+ *    @TemplatePattern(pattern = "1f8e0a7c-5b1a-4d2a-9d67-2a5c6f0b3e21")
+ *    public interface Measurement {
+ *        String unit();
+ *        float value();
+ *        @TemplateField(optional = true) Concept method();
+ *    }
+ * }</pre>
+ * The example generates a {@code MeasurementTemplate} class in the same package, with the setters {@code unit(String)},
+ * {@code value(float)}, and {@code method(Concept)}.
+ * @see TemplateField
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface TemplatePattern {
+
+    /**
+     * The UUIDs of the PublicId of the Pattern.
+     */
+    String[] pattern();
+
+    /**
+     * The simple name of the generated SemanticTemplate. Defaults to the name of the interface followed by
+     * {@code Template}.
+     */
+    String name() default "";
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright © 2024 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.tinkar.composer.rf2;
+
+import dev.ikm.tinkar.composer.Session;
+import dev.ikm.tinkar.terms.EntityProxy;
+import dev.ikm.tinkar.terms.EntityProxy.Concept;
+import dev.ikm.tinkar.terms.EntityProxy.Pattern;
+import dev.ikm.tinkar.terms.EntityProxy.Semantic;
+import org.eclipse.collections.api.list.ImmutableList;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The rows of one RF2 file that share a STAMP and, for refset and description rows, a Pattern. Concept rows are held
+ * as Concepts and written with {@link Session#composeConcepts(List)}, and other rows are held as columns and written
+ * with {@link Session#composeSemantics(Pattern, List, List, List)}.
+ */
+final class Rf2Batch {
+
+    private final Pattern pattern;
+    private final List<Concept> concepts;
+    private final List<Semantic> semantics;
+    private final List<EntityProxy> references;
+    private final List<ImmutableList<Object>> fieldValues;
+
+    /**
+     * @param pattern the Pattern of the Semantics in this batch, or null for a batch of Concepts
+     * @param capacity the number of rows written at once
+     */
+    Rf2Batch(Pattern pattern, int capacity) {
+        this.pattern = pattern;
+        this.concepts = pattern == null ? new ArrayList<>(capacity) : List.of();
+        this.semantics = pattern == null ? List.of() : new ArrayList<>(capacity);
+        this.references = pattern == null ? List.of() : new ArrayList<>(capacity);
+        this.fieldValues = pattern == null ? List.of() : new ArrayList<>(capacity);
+    }
+
+    void add(Concept concept) {
+        concepts.add(concept);
+    }
+
+    void add(Semantic semantic, EntityProxy reference, ImmutableList<Object> semanticFieldValues) {
+        semantics.add(semantic);
+        references.add(reference);
+        fieldValues.add(semanticFieldValues);
+    }
+
+    int size() {
+        return pattern == null ? concepts.size() : semantics.size();
+    }
+
+    /**
+     * Writes the rows of this batch with the Session provided, and clears the batch.
+     */
+    void write(Session session) {
+        if (pattern == null) {
+            session.composeConcepts(concepts);
+            concepts.clear();
+        } else {
+            session.composeSemantics(pattern, semantics, references, fieldValues);
+            semantics.clear();
+            references.clear();
+            fieldValues.clear();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright © 2024 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.tinkar.composer.rf2;
+
+import java.nio.file.Path;
+
+/**
+ * The RF2 release files read by {@link Rf2Importer}, in the order they are imported.
+ */
+enum Rf2FileType {
+    CONCEPT(5),
+    DESCRIPTION(9),
+    LANGUAGE(7),
+    OWL_EXPRESSION(7);
+
+    private final int columnCount;
+
+    Rf2FileType(int columnCount) {
+        this.columnCount = columnCount;
+    }
+
+    int columnCount() {
+        return columnCount;
+    }
+
+    /**
+     * Provides the type of an RF2 file from its name, or null if the file is not imported.
+     */
+    static Rf2FileType of(Path file) {
+        String fileName = file.getFileName().toString();
+        if (!fileName.endsWith(".txt")) {
+            return null;
+        } else if (fileName.startsWith("sct2_Concept_")) {
+            return CONCEPT;
+        } else if (fileName.startsWith("sct2_Description_") || fileName.startsWith("sct2_TextDefinition_")) {
+            return DESCRIPTION;
+        } else if (fileName.contains("Refset_Language")) {
+            return LANGUAGE;
+        } else if (fileName.contains("Refset_OWLExpression")) {
+            return OWL_EXPRESSION;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright © 2024 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.tinkar.composer.rf2;
+
+import java.time.Duration;
+
+/**
+ * The number of rows imported from each kind of RF2 file by {@link Rf2Importer}.
+ * @param conceptCount Concept rows written
+ * @param descriptionCount description and text definition rows written
+ * @param languageCount US and GB language refset rows written
+ * @param axiomCount OWL axiom refset rows written
+ * @param skippedCount descriptions in other languages, and rows of other refsets in the language and OWL files, which
+ *                     are not imported
+ * @param elapsed the time taken by the import, including the commit
+ */
+public record Rf2ImportSummary(long conceptCount, long descriptionCount, long languageCount, long axiomCount,
+                               long skippedCount, Duration elapsed) {
+
+    public long rowCount() {
+        return conceptCount + descriptionCount + languageCount + axiomCount;
+    }
+
+    public double rowsPerSecond() {
+        return elapsed.isZero() ? 0 : rowCount() * 1_000_000_000d / elapsed.toNanos();
+    }
+}
@@ -0,0 +1,398 @@
+/*
+ * Copyright © 2024 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.tinkar.composer.rf2;
+
+import dev.ikm.tinkar.common.id.PublicIds;
+import dev.ikm.tinkar.common.util.uuid.UuidUtil;
+import dev.ikm.tinkar.composer.Composer;
+import dev.ikm.tinkar.composer.FlushPolicy;
+import dev.ikm.tinkar.composer.Session;
+import dev.ikm.tinkar.terms.EntityProxy.Concept;
+import dev.ikm.tinkar.terms.EntityProxy.Pattern;
+import dev.ikm.tinkar.terms.EntityProxy.Semantic;
+import dev.ikm.tinkar.terms.State;
+import dev.ikm.tinkar.terms.TinkarTerm;
+import org.eclipse.collections.api.factory.Lists;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.stream.Stream;
+
+/**
+ * Imports the Concept, description, text definition, language refset, and OWL axiom refset files of an RF2 release
+ * using a Composer.
+ * <br /><br />
+ * Each file is split into chunks of whole lines that are memory-mapped and parsed in parallel. Rows are grouped by
+ * STAMP (status, effective time, and module) and written in batches with {@link Session#composeConcepts(List)} and
+ * {@link Session#composeSemantics}, rather than composing each row on its own. Each Session is flushed automatically
+ * once it holds {@link #maxPendingComponents(int)} Components, so the heap used does not grow with the size of the
+ * release, and the remaining Components are committed once all files have been read. Only the Sessions opened by the
+ * importer are committed, so other Sessions of the Composer are left open. Progress, as rows per second
+ * and heap in use, is logged while the import runs.
+ * <pre>{@code
+ *    Rf2ImportSummary summary = new Rf2Importer(composer, snomedAuthor, TinkarTerm.DEVELOPMENT_PATH)
+ *              .batchSize(20_000)
+ *              .maxPendingComponents(200_000)
+ *              .importRelease(Path.of("SnomedCT_InternationalRF2/Snapshot"));
+ * }</pre>
+ * Concepts, descriptions, and language refset members are identified by their SNOMED CT ids or refset member UUIDs, so
+ * importing a Full release, or several releases with one Composer, adds a Version per effective time to the same
+ * Components. Descriptions in languages other than English and Spanish, language refset rows of refsets other than the
+ * US and GB dialects, and OWL refset rows other than axioms are skipped.
+ */
+public class Rf2Importer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(Rf2Importer.class);
+    private static final int DEFAULT_BATCH_SIZE = 10_000;
+    private static final int DEFAULT_MAX_PENDING_COMPONENTS = 100_000;
+    private static final Duration DEFAULT_PROGRESS_INTERVAL = Duration.ofSeconds(10);
+    private static final String US_DIALECT_REFSET = "900000000000509007";
+    private static final String GB_DIALECT_REFSET = "900000000000508004";
+    private static final String OWL_AXIOM_REFSET = "733073007";
+    private static final java.util.regex.Pattern OWL_URL = java.util.regex.Pattern.compile("<[^>]+>");
+    private static final java.util.regex.Pattern OWL_SNOMED_ID = java.util.regex.Pattern.compile("(?<=:)([0-9]+)");
+
+    private final Composer composer;
+    private final Concept author;
+    private final Concept path;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private FlushPolicy flushPolicy = FlushPolicy.componentCount(DEFAULT_MAX_PENDING_COMPONENTS);
+    private Duration progressInterval = DEFAULT_PROGRESS_INTERVAL;
+
+    private final ConcurrentHashMap<String, Long> effectiveTimes = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Concept> modules = new ConcurrentHashMap<>();
+    private final EnumMap<Rf2FileType, LongAdder> rowCounts = new EnumMap<>(Rf2FileType.class);
+    private final LongAdder skippedCount = new LongAdder();
+    private final Set<Session> sessions = ConcurrentHashMap.newKeySet();
+    private final AtomicLong lastProgressNanos = new AtomicLong();
+    private long startNanos;
+
+    private record BatchKey(boolean active, String effectiveTime, String moduleId, Pattern pattern) {}
+
+    /**
+     * @param composer the Composer whose Sessions write the release
+     * @param author the author of every STAMP
+     * @param path the path of every STAMP
+     */
+    public Rf2Importer(Composer composer, Concept author, Concept path) {
+        this.composer = composer;
+        this.author = author;
+        this.path = path;
+        for (Rf2FileType fileType : Rf2FileType.values()) {
+            rowCounts.put(fileType, new LongAdder());
+        }
+    }
+
+    /**
+     * Sets the number of rows with the same STAMP written at once.
+     * @param batchSize the number of rows per batch
+     * @return this Rf2Importer for further method chaining
+     */
+    public Rf2Importer batchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * Sets the number of Components a Session may hold before they are committed, which defaults to 100,000.
+     * @param maxPendingComponents the number of pending Components that triggers a commit
+     * @return this Rf2Importer for further method chaining
+     */
+    public Rf2Importer maxPendingComponents(int maxPendingComponents) {
+        this.flushPolicy = FlushPolicy.componentCount(maxPendingComponents);
+        return this;
+    }
+
+    /**
+     * Sets how often progress is logged while importing.
+     * @param progressInterval the time between progress messages
+     * @return this Rf2Importer for further method chaining
+     */
+    public Rf2Importer progressInterval(Duration progressInterval) {
+        this.progressInterval = progressInterval;
+        return this;
+    }
+
+    /**
+     * Imports the RF2 files found in a release directory and its subdirectories, then commits the Components still
+     * pending in the Sessions the import opened.
+     * @param release the release directory, or a single RF2 file
+     * @return the number of rows imported
+     */
+    public Rf2ImportSummary importRelease(Path release) {
+        startNanos = System.nanoTime();
+        lastProgressNanos.set(startNanos);
+        Map<Rf2FileType, List<Path>> files = releaseFiles(release);
+        // Concepts are imported first, so that the files referring to them are imported after them
+        for (Rf2FileType fileType : Rf2FileType.values()) {
+            for (Path file : files.getOrDefault(fileType, List.of())) {
+                importFile(fileType, file);
+            }
+        }
+        for (Session session : sessions) {
+            composer.commitSession(session);
+        }
+        sessions.clear();
+        Rf2ImportSummary summary = summary();
+        LOG.info("RF2 import - Imported {} rows ({} skipped) in {} ms, {} rows/sec",
+                summary.rowCount(), summary.skippedCount(), summary.elapsed().toMillis(), Math.round(summary.rowsPerSecond()));
+        return summary;
+    }
+
+    private static Map<Rf2FileType, List<Path>> releaseFiles(Path release) {
+        Map<Rf2FileType, List<Path>> files = new EnumMap<>(Rf2FileType.class);
+        try (Stream<Path> paths = Files.walk(release)) {
+            paths.filter(Files::isRegularFile)
+                    .sorted()
+                    .forEach(file -> {
+                        Rf2FileType fileType = Rf2FileType.of(file);
+                        if (fileType != null) {
+                            files.computeIfAbsent(fileType, type -> new ArrayList<>()).add(file);
+                        }
+                    });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return files;
+    }
+
+    private void importFile(Rf2FileType fileType, Path file) {
+        LOG.info("RF2 import - Reading {}", file.getFileName());
+        try {
+            Rf2Reader.chunks(file).parallelStream().forEach(chunk -> importChunk(fileType, chunk));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void importChunk(Rf2FileType fileType, Rf2Reader.Chunk chunk) {
+        Map<BatchKey, Rf2Batch> batches = new HashMap<>();
+        try {
+            Rf2Reader.forEachRow(chunk, fileType.columnCount(), row -> {
+                switch (fileType) {
+                    case CONCEPT -> addConcept(row, batches);
+                    case DESCRIPTION -> addDescription(row, batches);
+                    case LANGUAGE -> addLanguage(row, batches);
+                    case OWL_EXPRESSION -> addAxiom(row, batches);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        batches.forEach((batchKey, batch) -> write(fileType, batchKey, batch));
+    }
+
+    // Concept file columns: id, effectiveTime, active, moduleId, definitionStatusId
+    private void addConcept(String[] row, Map<BatchKey, Rf2Batch> batches) {
+        BatchKey batchKey = batchKey(row, null);
+        Rf2Batch batch = batch(batchKey, batches);
+        batch.add(sctidConcept(row[0]));
+        writeIfFull(Rf2FileType.CONCEPT, batchKey, batch);
+    }
+
+    // Description file columns: id, effectiveTime, active, moduleId, conceptId, languageCode, typeId, term, caseSignificanceId
+    private void addDescription(String[] row, Map<BatchKey, Rf2Batch> batches) {
+        Concept language = language(row[5]);
+        if (language == null) {
+            skippedCount.increment();
+            return;
+        }
+        BatchKey batchKey = batchKey(row, TinkarTerm.DESCRIPTION_PATTERN);
+        Rf2Batch batch = batch(batchKey, batches);
+        batch.add(
+                Semantic.make(PublicIds.of(UuidUtil.fromSNOMED(row[0]))),
+                sctidConcept(row[4]),
+                Lists.immutable.of(language, row[7], caseSignificance(row[8]), descriptionType(row[6])));
+        writeIfFull(Rf2FileType.DESCRIPTION, batchKey, batch);
+    }
+
+    // Language refset columns: id, effectiveTime, active, moduleId, refsetId, referencedComponentId, acceptabilityId
+    private void addLanguage(String[] row, Map<BatchKey, Rf2Batch> batches) {
+        Pattern dialectPattern = switch (row[4]) {
+            case US_DIALECT_REFSET -> TinkarTerm.US_DIALECT_PATTERN;
+            case GB_DIALECT_REFSET -> TinkarTerm.GB_DIALECT_PATTERN;
+            default -> null;
+        };
+        if (dialectPattern == null) {
+            skippedCount.increment();
+            return;
+        }
+        BatchKey batchKey = batchKey(row, dialectPattern);
+        Rf2Batch batch = batch(batchKey, batches);
+        batch.add(
+                Semantic.make(PublicIds.of(UUID.fromString(row[0]))),
+                Semantic.make(PublicIds.of(UuidUtil.fromSNOMED(row[5]))),
+                Lists.immutable.of(acceptability(row[6])));
+        writeIfFull(Rf2FileType.LANGUAGE, batchKey, batch);
+    }
+
+    // OWL expression refset columns: id, effectiveTime, active, moduleId, refsetId, referencedComponentId, owlExpression
+    private void addAxiom(String[] row, Map<BatchKey, Rf2Batch> batches) {
+        if (!OWL_AXIOM_REFSET.equals(row[4])) {
+            skippedCount.increment();
+            return;
+        }
+        BatchKey batchKey = batchKey(row, TinkarTerm.OWL_AXIOM_SYNTAX_PATTERN);
+        Rf2Batch batch = batch(batchKey, batches);
+        batch.add(
+                Semantic.make(PublicIds.of(UUID.fromString(row[0]))),
+                sctidConcept(row[5]),
+                Lists.immutable.of(owlExpressionWithPublicIds(row[6])));
+        writeIfFull(Rf2FileType.OWL_EXPRESSION, batchKey, batch);
+    }
+
+    private Rf2Batch batch(BatchKey batchKey, Map<BatchKey, Rf2Batch> batches) {
+        return batches.computeIfAbsent(batchKey, key -> new Rf2Batch(key.pattern(), batchSize));
+    }
+
+    private void writeIfFull(Rf2FileType fileType, BatchKey batchKey, Rf2Batch batch) {
+        if (batch.size() >= batchSize) {
+            write(fileType, batchKey, batch);
+        }
+    }
+
+    private static BatchKey batchKey(String[] row, Pattern pattern) {
+        // Every imported file has effectiveTime, active, and moduleId as its second to fourth columns
+        return new BatchKey("1".equals(row[2]), row[1], row[3], pattern);
+    }
+
+    private void write(Rf2FileType fileType, BatchKey batchKey, Rf2Batch batch) {
+        int rowCount = batch.size();
+        if (rowCount == 0) {
+            return;
+        }
+        Session session = composer.open(batchKey.active() ? State.ACTIVE : State.INACTIVE,
+                effectiveTime(batchKey.effectiveTime()), author, module(batchKey.moduleId()), path)
+                .autoFlush(flushPolicy);
+        sessions.add(session);
+        batch.write(session);
+        rowCounts.get(fileType).add(rowCount);
+        logProgress();
+    }
+
+    private void logProgress() {
+        long now = System.nanoTime();
+        long last = lastProgressNanos.get();
+        if (now - last < progressInterval.toNanos() || !lastProgressNanos.compareAndSet(last, now)) {
+            return;
+        }
+        long rowCount = rowCounts.values().stream().mapToLong(LongAdder::sum).sum();
+        Runtime runtime = Runtime.getRuntime();
+        LOG.info("RF2 import - {} rows, {} rows/sec, heap used {} MB of {} MB",
+                rowCount,
+                Math.round(rowCount * 1_000_000_000d / Math.max(1, now - startNanos)),
+                (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024),
+                runtime.maxMemory() / (1024 * 1024));
+    }
+
+    private Rf2ImportSummary summary() {
+        return new Rf2ImportSummary(
+                rowCounts.get(Rf2FileType.CONCEPT).sum(),
+                rowCounts.get(Rf2FileType.DESCRIPTION).sum(),
+                rowCounts.get(Rf2FileType.LANGUAGE).sum(),
+                rowCounts.get(Rf2FileType.OWL_EXPRESSION).sum(),
+                skippedCount.sum(),
+                Duration.ofNanos(System.nanoTime() - startNanos));
+    }
+
+    private long effectiveTime(String effectiveTime) {
+        return effectiveTimes.computeIfAbsent(effectiveTime, time -> LocalDate.parse(time, DateTimeFormatter.BASIC_ISO_DATE)
+                .atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli());
+    }
+
+    private Concept module(String moduleId) {
+        return modules.computeIfAbsent(moduleId, Rf2Importer::sctidConcept);
+    }
+
+    private static Concept sctidConcept(String sctid) {
+        return Concept.make(PublicIds.of(UuidUtil.fromSNOMED(sctid)));
+    }
+
+    private static Concept language(String languageCode) {
+        return switch (languageCode) {
+            case "en" -> TinkarTerm.ENGLISH_LANGUAGE;
+            case "es" -> TinkarTerm.SPANISH_LANGUAGE;
+            default -> null;
+        };
+    }
+
+    private static Concept caseSignificance(String caseSignificanceId) {
+        return switch (caseSignificanceId) {
+            case "900000000000448009" -> TinkarTerm.DESCRIPTION_NOT_CASE_SENSITIVE;
+            case "900000000000017005" -> TinkarTerm.DESCRIPTION_CASE_SENSITIVE;
+            case "900000000000020002" -> TinkarTerm.DESCRIPTION_INITIAL_CHARACTER_CASE_SENSITIVE;
+            default -> throw new IllegalArgumentException("Unrecognized case significance: " + caseSignificanceId);
+        };
+    }
+
+    private static Concept descriptionType(String typeId) {
+        return switch (typeId) {
+            case "900000000000550004" -> TinkarTerm.DEFINITION_DESCRIPTION_TYPE;
+            case "900000000000003001" -> TinkarTerm.FULLY_QUALIFIED_NAME_DESCRIPTION_TYPE;
+            case "900000000000013009" -> TinkarTerm.REGULAR_NAME_DESCRIPTION_TYPE;
+            default -> throw new IllegalArgumentException("Unrecognized description type: " + typeId);
+        };
+    }
+
+    private static Concept acceptability(String acceptabilityId) {
+        return switch (acceptabilityId) {
+            case "900000000000548007" -> TinkarTerm.PREFERRED;
+            case "900000000000549004" -> TinkarTerm.ACCEPTABLE;
+            default -> throw new IllegalArgumentException("Unrecognized acceptability: " + acceptabilityId);
+        };
+    }
+
+    /**
+     * Replaces the URLs and SNOMED CT ids of an OWL expression with the PublicIds they identify.
+     */
+    private static String owlExpressionWithPublicIds(String owlExpression) {
+        String publicIdOwlExpression = owlExpression;
+        if (owlExpression.indexOf('<') >= 0 && owlExpression.indexOf('>') >= 0) {
+            publicIdOwlExpression = OWL_URL.matcher(publicIdOwlExpression).replaceAll(url -> {
+                String urlString = url.group();
+                return Matcher.quoteReplacement(publicIdString(UUID.nameUUIDFromBytes(urlString.substring(1, urlString.length() - 1).getBytes())));
+            });
+        }
+        return OWL_SNOMED_ID.matcher(publicIdOwlExpression)
+                .replaceAll(id -> Matcher.quoteReplacement(publicIdString(UuidUtil.fromSNOMED(id.group()))));
+    }
+
+    private static String publicIdString(UUID uuid) {
+        return PublicIds.of(uuid).toString().replace("\"", "");
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright © 2024 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.tinkar.composer.rf2;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads the rows of an RF2 file in chunks that end on line boundaries, so the chunks of one file can be parsed in
+ * parallel. Each chunk is memory-mapped, and fields are decoded directly from the bytes of each line rather than
+ * from an intermediate String of the whole line.
+ */
+final class Rf2Reader {
+
+    private Rf2Reader() {}
+
+    private static final int CHUNK_SIZE = 32 * 1024 * 1024;
+    private static final byte TAB = '\t';
+    private static final byte NEWLINE = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+
+    record Chunk(Path file, long position, long size) {}
+
+    /**
+     * Splits a file into chunks of whole lines, excluding the header line.
+     */
+    static List<Chunk> chunks(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            List<Chunk> chunks = new ArrayList<>();
+            long start = nextLine(channel, 0, fileSize);
+            while (start < fileSize) {
+                long end = fileSize - start <= CHUNK_SIZE ? fileSize : nextLine(channel, start + CHUNK_SIZE, fileSize);
+                chunks.add(new Chunk(file, start, end - start));
+                start = end;
+            }
+            return chunks;
+        }
+    }
+
+    /**
+     * Provides the position following the first newline at or after the position given, or the file size.
+     */
+    private static long nextLine(FileChannel channel, long position, long fileSize) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        while (position < fileSize) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == NEWLINE) {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return fileSize;
+    }
+
+    /**
+     * Passes the fields of each non-blank line of a chunk to the consumer. The last column holds the remainder of the
+     * line, so it may contain tabs.
+     * @throws IllegalArgumentException if a line has fewer columns than expected
+     */
+    static void forEachRow(Chunk chunk, int columnCount, Consumer<String[]> rowConsumer) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(chunk.file(), StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, chunk.position(), chunk.size());
+        }
+        byte[] line = new byte[1024];
+        int limit = buffer.limit();
+        int lineStart = 0;
+        while (lineStart < limit) {
+            int lineEnd = lineStart;
+            while (lineEnd < limit && buffer.get(lineEnd) != NEWLINE) {
+                lineEnd++;
+            }
+            int lineLength = lineEnd - lineStart;
+            if (lineLength > 0 && buffer.get(lineEnd - 1) == CARRIAGE_RETURN) {
+                lineLength--;
+            }
+            if (lineLength > 0) {
+                if (lineLength > line.length) {
+                    line = new byte[Math.max(lineLength, line.length * 2)];
+                }
+                buffer.get(lineStart, line, 0, lineLength);
+                rowConsumer.accept(fields(chunk, line, lineLength, columnCount));
+            }
+            lineStart = lineEnd + 1;
+        }
+    }
+
+    private static String[] fields(Chunk chunk, byte[] line, int lineLength, int columnCount) {
+        String[] fields = new String[columnCount];
+        int column = 0;
+        int fieldStart = 0;
+        for (int i = 0; i < lineLength && column < columnCount - 1; i++) {
+            if (line[i] == TAB) {
+                fields[column++] = new String(line, fieldStart, i - fieldStart, StandardCharsets.UTF_8);
+                fieldStart = i + 1;
+            }
+        }
+        if (column < columnCount - 1) {
+            throw new IllegalArgumentException(String.format("Expected %s columns in %s, but found %s: %s",
+                    columnCount, chunk.file().getFileName(), column + 1, new String(line, 0, lineLength, StandardCharsets.UTF_8)));
+        }
+        fields[column] = new String(line, fieldStart, lineLength - fieldStart, StandardCharsets.UTF_8);
+        return fields;
+    }
+}
@@ -38,6 +38,13 @@ public AxiomSyntax text(String text) {
         return this;
     }
 
+    @Override
+    public AxiomSyntax reset() {
+        super.reset();
+        this.text = null;
+        return this;
+    }
+
     @Override
     public AxiomSyntax semantic(Semantic semantic) {
         this.setSemantic(semantic);
@@ -0,0 +1,193 @@
+/*
+ * Copyright © 2024 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.tinkar.composer.template;
+
+import dev.ikm.tinkar.entity.graph.DiTreeEntity;
+import dev.ikm.tinkar.entity.graph.EntityVertex;
+import dev.ikm.tinkar.terms.ConceptFacade;
+import dev.ikm.tinkar.terms.EntityProxy.Concept;
+import dev.ikm.tinkar.terms.TinkarTerm;
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.factory.primitive.IntIntMaps;
+import org.eclipse.collections.api.factory.primitive.IntLists;
+import org.eclipse.collections.api.factory.primitive.IntObjectMaps;
+import org.eclipse.collections.api.list.ImmutableList;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.list.primitive.ImmutableIntList;
+import org.eclipse.collections.api.map.primitive.MutableIntIntMap;
+import org.eclipse.collections.api.map.primitive.MutableIntObjectMap;
+
+import java.util.Arrays;
+
+/**
+ * Records the vertices of an EL++ axiom tree in parallel arrays indexed by vertex index, and creates the DiTreeEntity
+ * from them in a single pass. The arrays are kept by {@link #clear()}, so a builder held by a reused StatedAxiom
+ * builds each axiom without growing them again.
+ * <br />
+ * Vertex zero is always the definition root. A vertex may be added before its predecessor, with
+ * {@link #UNLINKED} as its predecessor, and linked once the predecessor has been added.
+ */
+final class AxiomTreeBuilder {
+
+    static final int DEFINITION_ROOT = 0;
+    static final int UNLINKED = -1;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final byte OPERATOR = 0;
+    private static final byte CONCEPT_REFERENCE = 1;
+    private static final byte ROLE = 2;
+
+    private byte[] kinds = new byte[INITIAL_CAPACITY];
+    // The operator meaning, referenced Concept, or role type of each vertex, depending on its kind
+    private ConceptFacade[] concepts = new ConceptFacade[INITIAL_CAPACITY];
+    private int[] predecessors = new int[INITIAL_CAPACITY];
+    private int[] successorOffsets = new int[INITIAL_CAPACITY + 1];
+    private int[] successors = new int[INITIAL_CAPACITY];
+    private int vertexCount;
+
+    AxiomTreeBuilder() {
+        clear();
+    }
+
+    void clear() {
+        Arrays.fill(concepts, 0, vertexCount, null);
+        vertexCount = 0;
+        add(OPERATOR, TinkarTerm.DEFINITION_ROOT, UNLINKED);
+    }
+
+    /**
+     * Indicates whether any vertex has been added below the definition root.
+     */
+    boolean isEmpty() {
+        return vertexCount == 1;
+    }
+
+    int addOperator(ConceptFacade meaning, int predecessor) {
+        return add(OPERATOR, meaning, predecessor);
+    }
+
+    int addConceptReference(Concept concept, int predecessor) {
+        return add(CONCEPT_REFERENCE, concept, predecessor);
+    }
+
+    /**
+     * Adds an existential restriction for the role type provided. The filler of the restriction is added as a
+     * successor of the returned vertex.
+     */
+    int addRole(ConceptFacade roleType, int predecessor) {
+        return add(ROLE, roleType, predecessor);
+    }
+
+    /**
+     * Sets the predecessor of a vertex that was added as {@link #UNLINKED}.
+     */
+    void link(int vertexIndex, int predecessor) {
+        predecessors[vertexIndex] = predecessor;
+    }
+
+    private int add(byte kind, ConceptFacade concept, int predecessor) {
+        if (vertexCount == kinds.length) {
+            int capacity = kinds.length * 2;
+            kinds = Arrays.copyOf(kinds, capacity);
+            concepts = Arrays.copyOf(concepts, capacity);
+            predecessors = Arrays.copyOf(predecessors, capacity);
+        }
+        int vertexIndex = vertexCount++;
+        kinds[vertexIndex] = kind;
+        concepts[vertexIndex] = concept;
+        predecessors[vertexIndex] = predecessor;
+        return vertexIndex;
+    }
+
+    /**
+     * Provides the nids of the Concepts referenced directly by a set, i.e., the parents, excluding role fillers.
+     */
+    int[] parentNids() {
+        int[] parentNids = new int[vertexCount];
+        int parentCount = 0;
+        for (int vertexIndex = 1; vertexIndex < vertexCount; vertexIndex++) {
+            if (kinds[vertexIndex] == CONCEPT_REFERENCE && kinds[predecessors[vertexIndex]] == OPERATOR) {
+                parentNids[parentCount++] = concepts[vertexIndex].nid();
+            }
+        }
+        return Arrays.copyOf(parentNids, parentCount);
+    }
+
+    DiTreeEntity build() {
+        MutableList<EntityVertex> vertices = Lists.mutable.withInitialCapacity(vertexCount);
+        for (int vertexIndex = 0; vertexIndex < vertexCount; vertexIndex++) {
+            vertices.add(createVertex(vertexIndex));
+        }
+        indexSuccessors();
+
+        MutableIntObjectMap<ImmutableIntList> successorMap = IntObjectMaps.mutable.ofInitialCapacity(vertexCount);
+        MutableIntIntMap predecessorMap = IntIntMaps.mutable.ofInitialCapacity(vertexCount);
+        for (int vertexIndex = 0; vertexIndex < vertexCount; vertexIndex++) {
+            int start = successorOffsets[vertexIndex];
+            int end = successorOffsets[vertexIndex + 1];
+            if (end > start) {
+                successorMap.put(vertexIndex, IntLists.immutable.of(Arrays.copyOfRange(successors, start, end)));
+            }
+            if (vertexIndex != DEFINITION_ROOT) {
+                predecessorMap.put(vertexIndex, predecessors[vertexIndex]);
+            }
+        }
+        ImmutableList<EntityVertex> vertexList = vertices.toImmutable();
+        return new DiTreeEntity(vertexList.get(DEFINITION_ROOT), vertexList, successorMap.toImmutable(), predecessorMap.toImmutable());
+    }
+
+    /**
+     * Groups the successors of each vertex, in vertex index order, with a counting sort over the predecessor array.
+     */
+    private void indexSuccessors() {
+        if (successorOffsets.length < vertexCount + 1) {
+            successorOffsets = new int[kinds.length + 1];
+            successors = new int[kinds.length];
+        }
+        Arrays.fill(successorOffsets, 0, vertexCount + 1, 0);
+        for (int vertexIndex = 1; vertexIndex < vertexCount; vertexIndex++) {
+            successorOffsets[predecessors[vertexIndex] + 1]++;
+        }
+        for (int vertexIndex = 0; vertexIndex < vertexCount; vertexIndex++) {
+            successorOffsets[vertexIndex + 1] += successorOffsets[vertexIndex];
+        }
+        int[] nextSuccessor = Arrays.copyOf(successorOffsets, vertexCount);
+        for (int vertexIndex = 1; vertexIndex < vertexCount; vertexIndex++) {
+            successors[nextSuccessor[predecessors[vertexIndex]]++] = vertexIndex;
+        }
+    }
+
+    private EntityVertex createVertex(int vertexIndex) {
+        ConceptFacade concept = concepts[vertexIndex];
+        MutableIntObjectMap<Object> properties = IntObjectMaps.mutable.empty();
+        EntityVertex vertex;
+        switch (kinds[vertexIndex]) {
+            case CONCEPT_REFERENCE -> {
+                vertex = EntityVertex.make(concept);
+                vertex.setMeaningNid(TinkarTerm.CONCEPT_REFERENCE.nid());
+                properties.put(TinkarTerm.CONCEPT_REFERENCE.nid(), concept.toProxy());
+            }
+            case ROLE -> {
+                vertex = EntityVertex.make(TinkarTerm.ROLE);
+                properties.put(TinkarTerm.ROLE_TYPE.nid(), concept.toProxy());
+                properties.put(TinkarTerm.ROLE_OPERATOR.nid(), TinkarTerm.EXISTENTIAL_RESTRICTION);
+            }
+            default -> vertex = EntityVertex.make(concept);
+        }
+        vertex.setVertexIndex(vertexIndex);
+        vertex.setProperties(properties);
+        return vertex;
+    }
+}
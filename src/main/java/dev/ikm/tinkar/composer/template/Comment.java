@@ -45,6 +45,13 @@ public String getText() {
         return text;
     }
 
+    @Override
+    public Comment reset() {
+        super.reset();
+        this.text = null;
+        return this;
+    }
+
     @Override
     public Comment semantic(Semantic semantic) {
         this.setSemantic(semantic);
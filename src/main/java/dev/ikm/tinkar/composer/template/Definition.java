@@ -61,6 +61,15 @@ public Definition caseSignificance(Concept caseSignificance) {
         return this;
     }
 
+    @Override
+    public Definition reset() {
+        super.reset();
+        this.language = null;
+        this.text = null;
+        this.caseSignificance = null;
+        return this;
+    }
+
     @Override
     public Definition semantic(Semantic semantic) {
         this.setSemantic(semantic);
@@ -0,0 +1,197 @@
+/*
+ * Copyright © 2024 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.tinkar.composer.template;
+
+import dev.ikm.tinkar.common.id.PublicIds;
+import dev.ikm.tinkar.composer.SemanticTemplate;
+import dev.ikm.tinkar.composer.Write;
+import dev.ikm.tinkar.entity.transaction.Transaction;
+import dev.ikm.tinkar.terms.EntityProxy.Concept;
+import dev.ikm.tinkar.terms.EntityProxy.Pattern;
+import dev.ikm.tinkar.terms.EntityProxy.Semantic;
+import dev.ikm.tinkar.terms.TinkarTerm;
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.ImmutableList;
+import org.eclipse.collections.api.list.MutableList;
+
+/**
+ * Composes a description Semantic together with its dialect Semantics. The description and every dialect are written
+ * as one batch with the STAMP of the Session, rather than attaching a USDialect or GBDialect to a Synonym,
+ * FullyQualifiedName, or Definition one at a time.
+ * <pre>{@code
+ *    session.compose(new Description()
+ *                    .language(ENGLISH_LANGUAGE)
+ *                    .text("Description Text Here")
+ *                    .caseSignificance(DESCRIPTION_NOT_CASE_SENSITIVE)
+ *                    .type(REGULAR_NAME_DESCRIPTION_TYPE)
+ *                    .usDialect(PREFERRED)
+ *                    .gbDialect(ACCEPTABLE), referencedComponent);
+ * }</pre>
+ */
+public class Description extends SemanticTemplate {
+
+    public Description() {}
+
+    private Concept language;
+    private String text;
+    private Concept caseSignificance;
+    private Concept type;
+    private final MutableList<Pattern> dialectPatterns = Lists.mutable.empty();
+    private final MutableList<Semantic> dialectSemantics = Lists.mutable.empty();
+    private final MutableList<Concept> acceptabilities = Lists.mutable.empty();
+
+    /**
+     * Sets the language for the Description Semantic.
+     * @param language the Description language
+     * @return the Description SemanticTemplate for further method chaining
+     */
+    public Description language(Concept language) {
+        this.language = language;
+        return this;
+    }
+
+    /**
+     * Sets the text for the Description Semantic.
+     * @param text the Description text
+     * @return the Description SemanticTemplate for further method chaining
+     */
+    public Description text(String text) {
+        this.text = text;
+        return this;
+    }
+
+    /**
+     * Sets the case significance value for the Description Semantic.
+     * @param caseSignificance the Description case significance value
+     * @return the Description SemanticTemplate for further method chaining
+     */
+    public Description caseSignificance(Concept caseSignificance) {
+        this.caseSignificance = caseSignificance;
+        return this;
+    }
+
+    /**
+     * Sets the description type (e.g., FULLY_QUALIFIED_NAME_DESCRIPTION_TYPE) for the Description Semantic.
+     * @param type the Description type
+     * @return the Description SemanticTemplate for further method chaining
+     */
+    public Description type(Concept type) {
+        this.type = type;
+        return this;
+    }
+
+    /**
+     * Adds a US dialect Semantic with the acceptability provided.
+     * @param acceptability the US dialect acceptability value
+     * @return the Description SemanticTemplate for further method chaining
+     */
+    public Description usDialect(Concept acceptability) {
+        return dialect(TinkarTerm.US_DIALECT_PATTERN, null, acceptability);
+    }
+
+    /**
+     * Adds a GB dialect Semantic with the acceptability provided.
+     * @param acceptability the GB dialect acceptability value
+     * @return the Description SemanticTemplate for further method chaining
+     */
+    public Description gbDialect(Concept acceptability) {
+        return dialect(TinkarTerm.GB_DIALECT_PATTERN, null, acceptability);
+    }
+
+    /**
+     * Adds a dialect Semantic with the Pattern and acceptability provided.
+     * @param dialectPattern the dialect Pattern
+     * @param dialectSemantic the Semantic Proxy containing the PublicId of the dialect Semantic, or null for a random PublicId
+     * @param acceptability the dialect acceptability value
+     * @return the Description SemanticTemplate for further method chaining
+     */
+    public Description dialect(Pattern dialectPattern, Semantic dialectSemantic, Concept acceptability) {
+        dialectPatterns.add(dialectPattern);
+        dialectSemantics.add(dialectSemantic);
+        acceptabilities.add(acceptability);
+        return this;
+    }
+
+    @Override
+    public Description reset() {
+        super.reset();
+        this.language = null;
+        this.text = null;
+        this.caseSignificance = null;
+        this.type = null;
+        dialectPatterns.clear();
+        dialectSemantics.clear();
+        acceptabilities.clear();
+        return this;
+    }
+
+    @Override
+    public Description semantic(Semantic semantic) {
+        this.setSemantic(semantic);
+        return this;
+    }
+
+    @Override
+    protected Pattern assignPattern() {
+        return TinkarTerm.DESCRIPTION_PATTERN;
+    }
+
+    @Override
+    protected ImmutableList<Object> assignFieldValues() {
+        return Lists.immutable.of(language, text, caseSignificance, type);
+    }
+
+    @Override
+    protected void validate() throws IllegalArgumentException {
+        if (language == null || text == null || text.isEmpty() || caseSignificance == null || type == null) {
+            throw new IllegalArgumentException("Description requires language, text, case significance, and type");
+        }
+        if (dialectPatterns.anySatisfy(dialectPattern -> dialectPattern == null) || acceptabilities.anySatisfy(acceptability -> acceptability == null)) {
+            throw new IllegalArgumentException("Description dialects require a pattern and acceptability");
+        }
+    }
+
+    @Override
+    protected void validateAndWrite() {
+        validateForWrite();
+        Pattern descriptionPattern = assignPattern();
+        ImmutableList<Object> descriptionFieldValues = assignFieldValues();
+        validateFieldValues(descriptionPattern, descriptionFieldValues);
+        // Every Semantic is validated before any is written, so an invalid dialect writes nothing
+        int dialectCount = dialectPatterns.size();
+        @SuppressWarnings("unchecked")
+        ImmutableList<Object>[] dialectFieldValues = new ImmutableList[dialectCount];
+        for (int i = 0; i < dialectCount; i++) {
+            dialectFieldValues[i] = Lists.immutable.of(acceptabilities.get(i));
+            validateFieldValues(dialectPatterns.get(i), dialectFieldValues[i]);
+        }
+
+        Transaction transaction = getSessionTransaction();
+        int stampNid = getSessionStampEntity().nid();
+        Write.Sink sink = getSessionSink();
+        Semantic description = semantic();
+        transaction.addComponent(description);
+        Write.semantic(description, stampNid, getReference(), descriptionPattern, descriptionFieldValues, sink);
+        for (int i = 0; i < dialectCount; i++) {
+            Semantic dialectSemantic = dialectSemantics.get(i);
+            if (dialectSemantic == null) {
+                dialectSemantic = Semantic.make(PublicIds.newRandom());
+            }
+            transaction.addComponent(dialectSemantic);
+            Write.semantic(dialectSemantic, stampNid, description, dialectPatterns.get(i), dialectFieldValues[i], sink);
+        }
+    }
+}
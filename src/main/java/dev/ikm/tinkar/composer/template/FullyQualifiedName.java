@@ -61,6 +61,15 @@ public FullyQualifiedName caseSignificance(Concept caseSignificance) {
         return this;
     }
 
+    @Override
+    public FullyQualifiedName reset() {
+        super.reset();
+        this.language = null;
+        this.text = null;
+        this.caseSignificance = null;
+        return this;
+    }
+
     @Override
     public FullyQualifiedName semantic(Semantic semantic) {
         this.setSemantic(semantic);
@@ -39,6 +39,13 @@ public GBDialect acceptability(Concept acceptability) {
         return this;
     }
 
+    @Override
+    public GBDialect reset() {
+        super.reset();
+        this.acceptability = null;
+        return this;
+    }
+
     @Override
     public GBDialect semantic(Semantic semantic) {
         this.setSemantic(semantic);
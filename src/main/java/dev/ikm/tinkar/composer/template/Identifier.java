@@ -50,6 +50,14 @@ public Identifier identifier(String identifier) {
         return this;
     }
 
+    @Override
+    public Identifier reset() {
+        super.reset();
+        this.source = null;
+        this.identifier = null;
+        return this;
+    }
+
     @Override
     public Identifier semantic(Semantic semantic) {
         this.setSemantic(semantic);
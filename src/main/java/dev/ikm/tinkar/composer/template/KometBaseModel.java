@@ -26,6 +26,12 @@ public class KometBaseModel extends SemanticTemplate {
 
     public KometBaseModel() {}
 
+    @Override
+    public KometBaseModel reset() {
+        super.reset();
+        return this;
+    }
+
     @Override
     public KometBaseModel semantic(Semantic semantic) {
         this.setSemantic(semantic);
@@ -16,33 +16,23 @@
 package dev.ikm.tinkar.composer.template;
 
 import dev.ikm.tinkar.composer.SingleSemanticTemplate;
-import dev.ikm.tinkar.entity.graph.DiTreeEntity;
-import dev.ikm.tinkar.entity.graph.EntityVertex;
-import dev.ikm.tinkar.terms.ConceptFacade;
 import dev.ikm.tinkar.terms.EntityProxy.Concept;
 import dev.ikm.tinkar.terms.EntityProxy.Pattern;
 import dev.ikm.tinkar.terms.EntityProxy.Semantic;
 import dev.ikm.tinkar.terms.TinkarTerm;
 import org.eclipse.collections.api.factory.Lists;
-import org.eclipse.collections.api.factory.primitive.IntIntMaps;
 import org.eclipse.collections.api.factory.primitive.IntLists;
-import org.eclipse.collections.api.factory.primitive.IntObjectMaps;
 import org.eclipse.collections.api.list.ImmutableList;
-import org.eclipse.collections.api.list.MutableList;
-import org.eclipse.collections.api.list.primitive.ImmutableIntList;
 import org.eclipse.collections.api.list.primitive.MutableIntList;
-import org.eclipse.collections.api.map.primitive.MutableIntIntMap;
-import org.eclipse.collections.api.map.primitive.MutableIntObjectMap;
 
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 public class StatedAxiom extends SingleSemanticTemplate {
 
     public StatedAxiom() {}
 
-    private static final int IDX_DEFINITION_ROOT = 0;
-    private final AtomicInteger vertexIdx = new AtomicInteger(1); //Index zero reserved for DefinitionRoot
-    private final MutableList<EntityVertex> originVertexList = Lists.mutable.empty();
+    private final AxiomTreeBuilder axiomTree = new AxiomTreeBuilder();
+    private AxiomSet necessarySet;
 
     /**
      * Adds an isA relationship for each Concept provided, denoting it as a parent of the referenced Component for the StatedAxiom Semantic.
@@ -50,16 +40,57 @@ public StatedAxiom() {}
      * @return the StatedAxiom SemanticTemplate for further method chaining
      */
     public StatedAxiom isA(Concept... originConcepts) {
-        for (Concept originConcept : originConcepts) {
-            MutableIntObjectMap<Object> referenceProperty = IntObjectMaps.mutable.empty();
-            referenceProperty.put(TinkarTerm.CONCEPT_REFERENCE.nid(), originConcept.toProxy());
-
-            EntityVertex originVertex = EntityVertex.make(originConcept);
-            originVertex.setProperties(referenceProperty);
-            originVertex.setVertexIndex(vertexIdx.getAndIncrement());
-            originVertex.setMeaningNid(TinkarTerm.CONCEPT_REFERENCE.nid());
-            originVertexList.with(originVertex);
+        necessarySet().isA(originConcepts);
+        return this;
+    }
+
+    /**
+     * Adds an ungrouped existential restriction (e.g., {@code ObjectSomeValuesFrom(roleType filler)}) to the necessary
+     * set of the StatedAxiom Semantic.
+     * @param roleType the role type (attribute) of the restriction
+     * @param filler the Concept the role refers to
+     * @return the StatedAxiom SemanticTemplate for further method chaining
+     */
+    public StatedAxiom someRole(Concept roleType, Concept filler) {
+        necessarySet().someRole(roleType, filler);
+        return this;
+    }
+
+    /**
+     * Adds a role group to the necessary set of the StatedAxiom Semantic.
+     * @param roleGroupConsumer adds the existential restrictions of the role group
+     * @return the StatedAxiom SemanticTemplate for further method chaining
+     */
+    public StatedAxiom roleGroup(Consumer<RoleGroup> roleGroupConsumer) {
+        necessarySet().roleGroup(roleGroupConsumer);
+        return this;
+    }
+
+    /**
+     * Adds a sufficient set to the StatedAxiom Semantic, defining the referenced Component as equivalent to the
+     * conjunction of the parents and roles added to the set. May be called once for each equivalent class axiom.
+     * @param sufficientSetConsumer adds the parents, roles, and role groups of the sufficient set
+     * @return the StatedAxiom SemanticTemplate for further method chaining
+     */
+    public StatedAxiom sufficientSet(Consumer<AxiomSet> sufficientSetConsumer) {
+        AxiomSet sufficientSet = new AxiomSet(axiomTree, TinkarTerm.SUFFICIENT_SET);
+        sufficientSetConsumer.accept(sufficientSet);
+        sufficientSet.close();
+        return this;
+    }
+
+    private AxiomSet necessarySet() {
+        if (necessarySet == null) {
+            necessarySet = new AxiomSet(axiomTree, TinkarTerm.NECESSARY_SET);
         }
+        return necessarySet;
+    }
+
+    @Override
+    public StatedAxiom reset() {
+        super.reset();
+        axiomTree.clear();
+        necessarySet = null;
         return this;
     }
 
@@ -76,60 +107,134 @@ protected Pattern assignPattern() {
 
     @Override
     protected ImmutableList<Object> assignFieldValues() {
-        MutableList<Object> result = Lists.mutable.empty();
-        if (originVertexList.notEmpty()) {
-            result.add(constructDiTree());
+        if (axiomTree.isEmpty()) {
+            return Lists.immutable.empty();
+        }
+        closeNecessarySet();
+        return Lists.immutable.of(axiomTree.build());
+    }
+
+    @Override
+    protected void validateAndWrite() {
+        super.validateAndWrite();
+        closeNecessarySet();
+        indexStatedParents(getReference(), axiomTree.parentNids());
+    }
+
+    private void closeNecessarySet() {
+        if (necessarySet != null) {
+            necessarySet.close();
         }
-        return result.toImmutable();
     }
 
     @Override
     protected void validate() {
-        if (originVertexList.isEmpty()) {
+        if (axiomTree.isEmpty()) {
             throw new IllegalArgumentException("StatedAxiom requires at least one origin vertex");
         }
     }
 
-    private EntityVertex createEntityVertex(int vertexIndex, ConceptFacade conceptFacade){
-        MutableIntObjectMap<Object> properties =  IntObjectMaps.mutable.empty();
-        EntityVertex entityVertex = EntityVertex.make(conceptFacade);
-        entityVertex.setVertexIndex(vertexIndex);
-        entityVertex.setProperties(properties);
-        return entityVertex;
-    }
+    /**
+     * A necessary or sufficient set of a StatedAxiom, holding the conjunction of its parents, roles, and role groups.
+     * The AND and set vertices are added after the members of the set once it is closed, so an axiom of parents alone
+     * keeps the vertex order definition root, parents, AND, set.
+     */
+    public static final class AxiomSet {
+        private final AxiomTreeBuilder axiomTree;
+        private final Concept setOperator;
+        // The vertices whose predecessor is the AND of this set
+        private final MutableIntList memberIndexes = IntLists.mutable.empty();
+        private boolean closed;
+
+        private AxiomSet(AxiomTreeBuilder axiomTree, Concept setOperator) {
+            this.axiomTree = axiomTree;
+            this.setOperator = setOperator;
+        }
 
-    private DiTreeEntity constructDiTree() {
-        //Setup
-        MutableList<EntityVertex> vertexMap = Lists.mutable.empty();
-        MutableIntObjectMap<ImmutableIntList> successorMap = IntObjectMaps.mutable.empty();
-        MutableIntIntMap predecessorMap = IntIntMaps.mutable.empty();
-        MutableIntList originVertexIdxList = IntLists.mutable.empty();
-        int andIndex = vertexIdx.getAndIncrement();
-        int necessarySetIndex = vertexIdx.getAndIncrement();
-
-        //Construct Vertex Map
-        EntityVertex definitionRootVertex = createEntityVertex(IDX_DEFINITION_ROOT, TinkarTerm.DEFINITION_ROOT);
-        vertexMap.add(definitionRootVertex);
-        for (EntityVertex originVertex : originVertexList) {
-            vertexMap.add(originVertex.vertexIndex(), originVertex);
-            originVertexIdxList.add(originVertex.vertexIndex());
+        private void addMember(int memberIndex) {
+            if (closed) {
+                throw new IllegalStateException("AxiomSet has already been added to the StatedAxiom");
+            }
+            memberIndexes.add(memberIndex);
         }
-        vertexMap.add(createEntityVertex(andIndex, TinkarTerm.AND));
-        vertexMap.add(createEntityVertex(necessarySetIndex, TinkarTerm.NECESSARY_SET));
 
-        //Construct Successor Map
-        successorMap.put(IDX_DEFINITION_ROOT, IntLists.immutable.of(necessarySetIndex));
-        successorMap.put(andIndex, originVertexIdxList.toImmutable());
-        successorMap.put(necessarySetIndex, IntLists.immutable.of(andIndex));
+        private void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            int andIndex = axiomTree.addOperator(TinkarTerm.AND, AxiomTreeBuilder.UNLINKED);
+            int setIndex = axiomTree.addOperator(setOperator, AxiomTreeBuilder.DEFINITION_ROOT);
+            axiomTree.link(andIndex, setIndex);
+            memberIndexes.forEach(memberIndex -> axiomTree.link(memberIndex, andIndex));
+        }
 
-        //Construct Predecessor Map
-        for (int originIdx : originVertexIdxList.toArray()) {
-            predecessorMap.put(originIdx, andIndex);
+        /**
+         * Adds an isA relationship to each Concept provided.
+         * @param originConcepts the parent Concepts
+         * @return the AxiomSet for further method chaining
+         */
+        public AxiomSet isA(Concept... originConcepts) {
+            for (Concept originConcept : originConcepts) {
+                addMember(axiomTree.addConceptReference(originConcept, AxiomTreeBuilder.UNLINKED));
+            }
+            return this;
         }
-        predecessorMap.put(andIndex, necessarySetIndex);
-        predecessorMap.put(necessarySetIndex, IDX_DEFINITION_ROOT);
 
-        return new DiTreeEntity(definitionRootVertex, vertexMap.toImmutable(), successorMap.toImmutable(), predecessorMap.toImmutable());
+        /**
+         * Adds an ungrouped existential restriction.
+         * @param roleType the role type (attribute) of the restriction
+         * @param filler the Concept the role refers to
+         * @return the AxiomSet for further method chaining
+         */
+        public AxiomSet someRole(Concept roleType, Concept filler) {
+            addMember(addSomeRole(axiomTree, AxiomTreeBuilder.UNLINKED, roleType, filler));
+            return this;
+        }
+
+        /**
+         * Adds a role group.
+         * @param roleGroupConsumer adds the existential restrictions of the role group
+         * @return the AxiomSet for further method chaining
+         */
+        public AxiomSet roleGroup(Consumer<RoleGroup> roleGroupConsumer) {
+            RoleGroup roleGroup = new RoleGroup(axiomTree);
+            addMember(roleGroup.roleGroupIndex);
+            roleGroupConsumer.accept(roleGroup);
+            return this;
+        }
+    }
+
+    /**
+     * A role group of a StatedAxiom, holding the existential restrictions that apply together.
+     */
+    public static final class RoleGroup {
+        private final AxiomTreeBuilder axiomTree;
+        private final int roleGroupIndex;
+        private final int andIndex;
+
+        private RoleGroup(AxiomTreeBuilder axiomTree) {
+            this.axiomTree = axiomTree;
+            this.roleGroupIndex = axiomTree.addRole(TinkarTerm.ROLE_GROUP, AxiomTreeBuilder.UNLINKED);
+            this.andIndex = axiomTree.addOperator(TinkarTerm.AND, roleGroupIndex);
+        }
+
+        /**
+         * Adds an existential restriction to the role group.
+         * @param roleType the role type (attribute) of the restriction
+         * @param filler the Concept the role refers to
+         * @return the RoleGroup for further method chaining
+         */
+        public RoleGroup someRole(Concept roleType, Concept filler) {
+            addSomeRole(axiomTree, andIndex, roleType, filler);
+            return this;
+        }
+    }
+
+    private static int addSomeRole(AxiomTreeBuilder axiomTree, int andIndex, Concept roleType, Concept filler) {
+        int roleIndex = axiomTree.addRole(roleType, andIndex);
+        axiomTree.addConceptReference(filler, roleIndex);
+        return roleIndex;
     }
 
 }
@@ -56,6 +56,14 @@ public StatedNavigation children(Concept... destinationConcepts) {
         return this;
     }
 
+    @Override
+    public StatedNavigation reset() {
+        super.reset();
+        origins.clear();
+        destinations.clear();
+        return this;
+    }
+
     @Override
     public StatedNavigation semantic(Semantic semantic) {
         this.setSemantic(semantic);
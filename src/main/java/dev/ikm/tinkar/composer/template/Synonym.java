@@ -61,6 +61,15 @@ public Synonym caseSignificance(Concept caseSignificance) {
         return this;
     }
 
+    @Override
+    public Synonym reset() {
+        super.reset();
+        this.language = null;
+        this.text = null;
+        this.caseSignificance = null;
+        return this;
+    }
+
     @Override
     public Synonym semantic(Semantic semantic) {
         this.setSemantic(semantic);
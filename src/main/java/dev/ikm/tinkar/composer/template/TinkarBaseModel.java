@@ -26,6 +26,12 @@ public class TinkarBaseModel extends SemanticTemplate {
 
     public TinkarBaseModel() {}
 
+    @Override
+    public TinkarBaseModel reset() {
+        super.reset();
+        return this;
+    }
+
     @Override
     public TinkarBaseModel semantic(Semantic semantic) {
         this.setSemantic(semantic);
@@ -39,6 +39,13 @@ public USDialect acceptability(Concept acceptability) {
         return this;
     }
 
+    @Override
+    public USDialect reset() {
+        super.reset();
+        this.acceptability = null;
+        return this;
+    }
+
     @Override
     public USDialect semantic(Semantic semantic) {
         this.setSemantic(semantic);
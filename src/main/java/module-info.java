@@ -20,7 +20,10 @@
     requires transitive org.eclipse.collections.api;
     requires org.eclipse.collections.impl;
     requires org.slf4j;
+    requires static java.compiler;
     exports dev.ikm.tinkar.composer;
     exports dev.ikm.tinkar.composer.template;
     exports dev.ikm.tinkar.composer.assembler;
+    exports dev.ikm.tinkar.composer.generator;
+    exports dev.ikm.tinkar.composer.rf2;
 }
\ No newline at end of file
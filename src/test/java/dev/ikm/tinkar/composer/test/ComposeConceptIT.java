@@ -22,6 +22,7 @@
 import dev.ikm.tinkar.common.service.PrimitiveData;
 import dev.ikm.tinkar.composer.Composer;
 import dev.ikm.tinkar.composer.Session;
+import dev.ikm.tinkar.composer.Write;
 import dev.ikm.tinkar.composer.assembler.ConceptAssembler;
 import dev.ikm.tinkar.composer.template.AxiomSyntax;
 import dev.ikm.tinkar.composer.template.Comment;
@@ -37,6 +38,7 @@
 import dev.ikm.tinkar.composer.template.USDialect;
 import dev.ikm.tinkar.composer.test.template.CustomSemantic;
 import dev.ikm.tinkar.common.service.EntityCountSummary;
+import dev.ikm.tinkar.entity.EntityService;
 import dev.ikm.tinkar.entity.load.LoadEntitiesFromProtobufFile;
 import dev.ikm.tinkar.terms.EntityProxy.Concept;
 import dev.ikm.tinkar.terms.EntityProxy.Semantic;
@@ -48,10 +50,15 @@
 import org.junit.jupiter.api.TestInstance;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.function.Function;
 
 import static dev.ikm.tinkar.terms.TinkarTerm.*;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
@@ -95,6 +102,23 @@ public void createConceptWithPublicIdTest() {
                 String.format("Expect %s updated components, but %s were updated instead.", expectedComponentsUpdatedCount, actualComponentsUpdatedCount));
     }
 
+    @Test
+    public void createConceptWithAddedUuidsTest() {
+        Composer composer = new Composer("createConceptWithAddedUuidsTest");
+        Session session = composer.open(DEFAULT_STATUS, DEFAULT_TIME, DEFAULT_AUTHOR, DEFAULT_MODULE, DEFAULT_PATH);
+
+        UUID[] uuids = {UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()};
+        session.compose((ConceptAssembler conceptAssembler) -> conceptAssembler
+                .addUuid(uuids[0])
+                .addUuid(uuids[1])
+                .addUuid(uuids[2]));
+
+        composer.commitSession(session);
+        PublicId writtenPublicId = EntityService.get().getEntityFast(PrimitiveData.nid(PublicIds.of(uuids))).publicId();
+        assertArrayEquals(uuids, writtenPublicId.asUuidArray(),
+                String.format("Expect PublicId %s, but %s was written instead.", PublicIds.of(uuids), writtenPublicId));
+    }
+
     @Test
     public void createConceptWithoutPublicIdTest() {
         Composer composer = new Composer("createConceptWithoutPublicIdTest");
@@ -382,4 +406,33 @@ public void complexConceptCreateTest() {
         assertEquals(expectedComponentsUpdatedCount, actualComponentsUpdatedCount,
                 String.format("Expect %s updated components, but %s were updated instead.", expectedComponentsUpdatedCount, actualComponentsUpdatedCount));
     }
+
+    @Test
+    public void registerNidsBeforeComposingConceptsTest() {
+        Composer composer = new Composer("registerNidsBeforeComposingConceptsTest");
+        Session session = composer.open(State.ACTIVE, System.currentTimeMillis(), DEFAULT_AUTHOR, DEFAULT_MODULE, DEFAULT_PATH);
+        int conceptCount = 5_000;
+        List<Concept> concepts = new ArrayList<>(conceptCount);
+        for (int i = 0; i < conceptCount; i++) {
+            concepts.add(Concept.make(PublicIds.newRandom()));
+        }
+
+        Write.registerNids(concepts);
+
+        Set<Integer> nids = new HashSet<>();
+        for (Concept concept : concepts) {
+            assertEquals(PrimitiveData.nid(concept.publicId()), concept.nid(),
+                    "Expected the registered nid to be the nid of the Concept PublicId.");
+            nids.add(concept.nid());
+        }
+        assertEquals(conceptCount, nids.size(),
+                String.format("Expected %s distinct nids, but %s were registered instead.", conceptCount, nids.size()));
+
+        session.composeConcepts(concepts);
+        composer.commitSession(session);
+
+        int actualComponentsUpdatedCount = session.componentsInSessionCount();
+        assertEquals(conceptCount, actualComponentsUpdatedCount,
+                String.format("Expect %s updated components, but %s were updated instead.", conceptCount, actualComponentsUpdatedCount));
+    }
 }
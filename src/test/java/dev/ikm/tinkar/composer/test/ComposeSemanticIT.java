@@ -16,12 +16,15 @@
  * limitations under the License.
  */
 
+import com.sun.management.ThreadMXBean;
 import dev.ikm.tinkar.common.id.PublicId;
 import dev.ikm.tinkar.common.id.PublicIds;
 import dev.ikm.tinkar.common.service.CachingService;
 import dev.ikm.tinkar.common.service.PrimitiveData;
 import dev.ikm.tinkar.composer.Composer;
 import dev.ikm.tinkar.composer.Session;
+import dev.ikm.tinkar.composer.SingleSemanticIds;
+import dev.ikm.tinkar.composer.Write;
 import dev.ikm.tinkar.composer.assembler.PatternAssembler;
 import dev.ikm.tinkar.composer.assembler.SemanticAssembler;
 import dev.ikm.tinkar.composer.template.AxiomSyntax;
@@ -38,23 +41,35 @@
 import dev.ikm.tinkar.composer.template.USDialect;
 import dev.ikm.tinkar.composer.test.template.CustomSemantic;
 import dev.ikm.tinkar.common.service.EntityCountSummary;
+import dev.ikm.tinkar.entity.EntityService;
+import dev.ikm.tinkar.entity.SemanticEntity;
+import dev.ikm.tinkar.entity.SemanticEntityVersion;
 import dev.ikm.tinkar.entity.load.LoadEntitiesFromProtobufFile;
 import dev.ikm.tinkar.terms.EntityProxy.Concept;
 import dev.ikm.tinkar.terms.EntityProxy.Pattern;
 import dev.ikm.tinkar.terms.EntityProxy.Semantic;
 import dev.ikm.tinkar.terms.State;
 import dev.ikm.tinkar.terms.TinkarTerm;
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.ImmutableList;
+import org.eclipse.collections.api.list.MutableList;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 
 import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 import java.util.function.Function;
 
 import static dev.ikm.tinkar.terms.TinkarTerm.*;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 public class ComposeSemanticIT {
@@ -68,6 +83,8 @@ public class ComposeSemanticIT {
 
     private static final Pattern COOL_NEW_PATTERN = Pattern.make(PublicIds.newRandom());
     private static final Concept DEFAULT_REF_PROXY = Concept.make(PublicIds.newRandom());
+    // Bounds the records built per write, so a change that copies or boxes on the write path fails the build
+    private static final long MAX_BYTES_PER_WRITE = 1024;
 
     @BeforeAll
     public void beforeAll() {
@@ -651,6 +668,178 @@ public void createSemanticFromSupplierWithCustomSemanticTest() {
     }
     // ### END: Semantic Supplier Creation Tests with Semantics
 
+    // ### START: Batch Creation Tests
+    @Test
+    public void createSemanticsInBatchTest() {
+        Composer composer = new Composer("createSemanticsInBatchTest");
+        Session session = composer.open(DEFAULT_STATUS, DEFAULT_TIME, DEFAULT_AUTHOR, DEFAULT_MODULE, DEFAULT_PATH);
+
+        int semanticCount = 25;
+        List<Concept> references = new ArrayList<>();
+        List<Semantic> semantics = new ArrayList<>();
+        List<ImmutableList<Object>> fieldValues = new ArrayList<>();
+        for (int i = 0; i < semanticCount; i++) {
+            references.add(Concept.make(PublicIds.newRandom()));
+            semantics.add(Semantic.make(PublicIds.newRandom()));
+            fieldValues.add(Lists.immutable.of("String Field Value " + i));
+        }
+        session.composeConcepts(references);
+        session.composeSemantics(COOL_NEW_PATTERN, semantics, references, fieldValues);
+
+        composer.commitSession(session);
+        int expectedComponentsUpdatedCount = semanticCount * 2;
+        int actualComponentsUpdatedCount = session.componentsInSessionCount();
+        assertEquals(expectedComponentsUpdatedCount, actualComponentsUpdatedCount,
+                String.format("Expect %s updated components, but %s were updated instead.", expectedComponentsUpdatedCount, actualComponentsUpdatedCount));
+        for (Semantic semantic : semantics) {
+            int actualVersionCount = EntityService.get().getEntityFast(semantic.asUuidArray()).versions().size();
+            assertEquals(1, actualVersionCount,
+                    String.format("Expected 1 version for batch written Semantic, but there were %s versions instead.", actualVersionCount));
+        }
+    }
+
+    @Test
+    public void singleSemanticIdsTest() {
+        List<Concept> references = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            references.add(Concept.make(PublicIds.newRandom()));
+        }
+        // A reference with several UUIDs is hashed from all of them
+        references.add(Concept.make(PublicIds.of(UUID.randomUUID(), UUID.randomUUID())));
+
+        ImmutableList<PublicId> semanticIds = SingleSemanticIds.of(STATED_NAVIGATION_PATTERN, references);
+
+        for (int i = 0; i < references.size(); i++) {
+            PublicId expectedSemanticId = PublicIds.singleSemanticId(STATED_NAVIGATION_PATTERN.publicId(), references.get(i).publicId());
+            assertArrayEquals(expectedSemanticId.asUuidArray(), semanticIds.get(i).asUuidArray(),
+                    String.format("Expected batch semantic id %s, but %s was derived instead.", expectedSemanticId, semanticIds.get(i)));
+            assertArrayEquals(expectedSemanticId.asUuidArray(), SingleSemanticIds.of(STATED_NAVIGATION_PATTERN, references.get(i)).asUuidArray(),
+                    String.format("Expected single semantic id %s for reference %s.", expectedSemanticId, references.get(i)));
+        }
+    }
+    // ### END: Batch Creation Tests
+
+    // ### START: Field Value Validation Tests
+    @Test
+    public void validateFieldValuesTest() {
+        Composer composer = new Composer("validateFieldValuesTest").validateFieldValues();
+        Session session = composer.open(DEFAULT_STATUS, DEFAULT_TIME, DEFAULT_AUTHOR, DEFAULT_MODULE, DEFAULT_PATH);
+
+        session.compose((SemanticAssembler semanticAssembler) -> semanticAssembler
+                .reference(ROOT_VERTEX)
+                .pattern(COMMENT_PATTERN)
+                .fieldValues(vals -> vals.add("Comment with valid field values")));
+        session.compose(new Comment().text("Comment from Template"), ROOT_VERTEX);
+
+        assertThrows(IllegalArgumentException.class, () -> session.compose((SemanticAssembler semanticAssembler) -> semanticAssembler
+                .reference(ROOT_VERTEX)
+                .pattern(COMMENT_PATTERN)
+                .fieldValues(vals -> vals.add("Comment").add("with too many field values"))));
+        assertThrows(IllegalArgumentException.class, () -> session.compose((SemanticAssembler semanticAssembler) -> semanticAssembler
+                .reference(ROOT_VERTEX)
+                .pattern(COMMENT_PATTERN)
+                .fieldValues(vals -> vals.add(42))));
+        assertThrows(IllegalArgumentException.class, () -> session.composeSemantics(COMMENT_PATTERN,
+                List.of(Semantic.make(PublicIds.newRandom())), List.of(ROOT_VERTEX), List.of(Lists.immutable.empty())));
+
+        composer.commitSession(session);
+        int expectedComponentsUpdatedCount = 2;
+        int actualComponentsUpdatedCount = session.componentsInSessionCount();
+        assertEquals(expectedComponentsUpdatedCount, actualComponentsUpdatedCount,
+                String.format("Expect %s updated components, but %s were updated instead.", expectedComponentsUpdatedCount, actualComponentsUpdatedCount));
+    }
+
+    @Test
+    public void fieldValuesCopiedFromConsumerListTest() {
+        Composer composer = new Composer("fieldValuesCopiedFromConsumerListTest");
+        Session session = composer.open(DEFAULT_STATUS, DEFAULT_TIME, DEFAULT_AUTHOR, DEFAULT_MODULE, DEFAULT_PATH);
+        Semantic fullySetSemantic = Semantic.make(PublicIds.newRandom());
+        Semantic partlySetSemantic = Semantic.make(PublicIds.newRandom());
+        List<MutableList<Object>> consumedLists = new ArrayList<>();
+
+        session.compose((SemanticAssembler semanticAssembler) -> semanticAssembler
+                .semantic(fullySetSemantic)
+                .reference(ROOT_VERTEX)
+                .pattern(DESCRIPTION_PATTERN)
+                .fieldValues(vals -> {
+                    consumedLists.add(vals);
+                    vals.add(ENGLISH_LANGUAGE)
+                            .add("Description with every field")
+                            .add(DESCRIPTION_NOT_CASE_SENSITIVE)
+                            .add(REGULAR_NAME_DESCRIPTION_TYPE);
+                }));
+        session.compose((SemanticAssembler semanticAssembler) -> semanticAssembler
+                .semantic(partlySetSemantic)
+                .reference(ROOT_VERTEX)
+                .pattern(COMMENT_PATTERN)
+                .fieldValues(vals -> vals.add("Comment")));
+
+        composer.commitSession(session);
+        SemanticEntity<SemanticEntityVersion> fullySet = EntityService.get().getEntityFast(fullySetSemantic.asUuidArray());
+        assertEquals(Lists.immutable.of(ENGLISH_LANGUAGE, "Description with every field", DESCRIPTION_NOT_CASE_SENSITIVE, REGULAR_NAME_DESCRIPTION_TYPE),
+                fullySet.versions().get(0).fieldValues());
+        SemanticEntity<SemanticEntityVersion> partlySet = EntityService.get().getEntityFast(partlySetSemantic.asUuidArray());
+        assertEquals(Lists.immutable.of("Comment"), partlySet.versions().get(0).fieldValues());
+        // The consumer's list is copied, so changing it after the write does not change the written field values
+        consumedLists.getFirst().clear();
+        fullySet = EntityService.get().getEntityFast(fullySetSemantic.asUuidArray());
+        assertEquals(Lists.immutable.of(ENGLISH_LANGUAGE, "Description with every field", DESCRIPTION_NOT_CASE_SENSITIVE, REGULAR_NAME_DESCRIPTION_TYPE),
+                fullySet.versions().get(0).fieldValues());
+    }
+    // ### END: Field Value Validation Tests
+
+    // ### START: Write Allocation Tests
+    /**
+     * Measures the bytes allocated per record by {@link Write#concept(Concept, int, Write.Sink)} and
+     * {@link Write#semantic(Semantic, int, dev.ikm.tinkar.terms.EntityProxy, Pattern, ImmutableList, Write.Sink)}.
+     * Records are handed to a Sink that discards them, and nids are resolved beforehand, so only the construction of
+     * the Chronology and its first Version is measured.
+     */
+    @Test
+    public void writeAllocationTest() {
+        Composer composer = new Composer("writeAllocationTest");
+        Session session = composer.open(DEFAULT_STATUS, DEFAULT_TIME, DEFAULT_AUTHOR, DEFAULT_MODULE, DEFAULT_PATH);
+        int stampNid = session.getStamp().nid();
+        int writeCount = 50_000;
+        List<Concept> concepts = new ArrayList<>(writeCount);
+        List<Semantic> semantics = new ArrayList<>(writeCount);
+        for (int i = 0; i < writeCount; i++) {
+            concepts.add(Concept.make(PublicIds.newRandom()));
+            semantics.add(Semantic.make(PublicIds.newRandom()));
+        }
+        Write.registerNids(concepts);
+        Write.registerNids(semantics);
+        ImmutableList<Object> fieldValues = Lists.immutable.of("Allocation comment");
+        Write.Sink discardingSink = entity -> {};
+
+        // First pass warms up the write path, second pass is measured
+        long conceptBytesPerWrite = 0;
+        long semanticBytesPerWrite = 0;
+        for (int pass = 0; pass < 2; pass++) {
+            long allocatedBytes = allocatedBytes();
+            concepts.forEach(concept -> Write.concept(concept, stampNid, discardingSink));
+            conceptBytesPerWrite = (allocatedBytes() - allocatedBytes) / writeCount;
+
+            allocatedBytes = allocatedBytes();
+            for (int i = 0; i < writeCount; i++) {
+                Write.semantic(semantics.get(i), stampNid, concepts.get(i), COMMENT_PATTERN, fieldValues, discardingSink);
+            }
+            semanticBytesPerWrite = (allocatedBytes() - allocatedBytes) / writeCount;
+        }
+        composer.cancelSession(session);
+
+        assertTrue(conceptBytesPerWrite < MAX_BYTES_PER_WRITE,
+                String.format("Expected fewer than %s bytes allocated per Write.concept, but %s were allocated.", MAX_BYTES_PER_WRITE, conceptBytesPerWrite));
+        assertTrue(semanticBytesPerWrite < MAX_BYTES_PER_WRITE,
+                String.format("Expected fewer than %s bytes allocated per Write.semantic, but %s were allocated.", MAX_BYTES_PER_WRITE, semanticBytesPerWrite));
+    }
+
+    private static long allocatedBytes() {
+        ThreadMXBean threadMXBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().threadId());
+    }
+    // ### END: Write Allocation Tests
+
     @Test
     public void complexSemanticCreateTest() {
         PublicId fqnId = PublicIds.of(UUID.nameUUIDFromBytes("fqnId".getBytes()));
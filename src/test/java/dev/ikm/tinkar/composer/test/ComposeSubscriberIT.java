@@ -0,0 +1,115 @@
+/*
+ * Copyright © 2024 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.tinkar.composer.test;
+
+import dev.ikm.tinkar.common.id.PublicIds;
+import dev.ikm.tinkar.common.service.CachingService;
+import dev.ikm.tinkar.common.service.PrimitiveData;
+import dev.ikm.tinkar.common.service.ServiceKeys;
+import dev.ikm.tinkar.common.service.ServiceProperties;
+import dev.ikm.tinkar.composer.ComposeSubscriber;
+import dev.ikm.tinkar.composer.Composer;
+import dev.ikm.tinkar.composer.Session;
+import dev.ikm.tinkar.composer.SessionConsumer;
+import dev.ikm.tinkar.composer.assembler.ConceptAssembler;
+import dev.ikm.tinkar.composer.template.Comment;
+import dev.ikm.tinkar.terms.EntityProxy.Concept;
+import dev.ikm.tinkar.terms.State;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SubmissionPublisher;
+
+import static dev.ikm.tinkar.terms.TinkarTerm.DEVELOPMENT_MODULE;
+import static dev.ikm.tinkar.terms.TinkarTerm.DEVELOPMENT_PATH;
+import static dev.ikm.tinkar.terms.TinkarTerm.USER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ComposeSubscriberIT {
+    public static State DEFAULT_STATUS = State.ACTIVE;
+    public static Concept DEFAULT_AUTHOR = USER;
+    public static Concept DEFAULT_MODULE = DEVELOPMENT_MODULE;
+    public static Concept DEFAULT_PATH = DEVELOPMENT_PATH;
+
+    private final Path datastore = Path.of(System.getProperty("user.dir"))
+            .resolve("target")
+            .resolve(ComposeSubscriberIT.class.getSimpleName())
+            .resolve("datastore");
+
+    @BeforeAll
+    public void beforeAll() {
+        CachingService.clearAll();
+        ServiceProperties.set(ServiceKeys.DATA_STORE_ROOT, datastore.toFile());
+        PrimitiveData.selectControllerByName("Load Ephemeral Store");
+        PrimitiveData.start();
+    }
+
+    @AfterAll
+    public void afterAll() {
+        PrimitiveData.stop();
+    }
+
+    @Test
+    public void subscriberComposesPublishedConsumersTest() {
+        Composer composer = new Composer("subscriberComposesPublishedConsumersTest");
+        Session session = composer.open(DEFAULT_STATUS, System.currentTimeMillis(), DEFAULT_AUTHOR, DEFAULT_MODULE, DEFAULT_PATH);
+        int conceptCount = 2_000;
+        ComposeSubscriber subscriber = session.subscriber().maxPendingComponents(500).maxRequest(64);
+
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            // A small buffer makes submit block whenever the subscriber stops requesting
+            SubmissionPublisher<SessionConsumer> publisher = new SubmissionPublisher<>(executor, 32);
+            publisher.subscribe(subscriber);
+            for (int i = 0; i < conceptCount; i++) {
+                String text = "Comment " + i;
+                publisher.submit(s -> s
+                        .compose((ConceptAssembler conceptAssembler) -> conceptAssembler.publicId(PublicIds.newRandom()))
+                        .attach(Comment.class, comment -> comment.text(text)));
+            }
+            publisher.close();
+            subscriber.completion().join();
+        }
+
+        int expectedComponentsUpdatedCount = conceptCount * 2;
+        int actualComponentsUpdatedCount = session.componentsInSessionCount();
+        assertEquals(expectedComponentsUpdatedCount, actualComponentsUpdatedCount,
+                String.format("Expect %s updated components, but %s were updated instead.", expectedComponentsUpdatedCount, actualComponentsUpdatedCount));
+        composer.commitSession(session);
+    }
+
+    @Test
+    public void subscriberRejectsDerivedNavigationTest() {
+        Composer composer = new Composer("subscriberRejectsDerivedNavigationTest");
+        Session subscribedSession = composer.open(DEFAULT_STATUS, System.currentTimeMillis(), DEFAULT_AUTHOR, DEFAULT_MODULE, DEFAULT_PATH);
+        subscribedSession.subscriber();
+        assertThrows(IllegalStateException.class, subscribedSession::deriveStatedNavigation,
+                "Expected a Session composing through a ComposeSubscriber to reject deriving StatedNavigation.");
+        composer.cancelSession(subscribedSession);
+
+        Session navigationSession = composer.open(DEFAULT_STATUS, System.currentTimeMillis() + 1, DEFAULT_AUTHOR, DEFAULT_MODULE, DEFAULT_PATH)
+                .deriveStatedNavigation();
+        assertThrows(IllegalStateException.class, navigationSession::subscriber,
+                "Expected a Session deriving StatedNavigation to reject a ComposeSubscriber.");
+        composer.cancelSession(navigationSession);
+    }
+}
@@ -26,7 +26,9 @@
 import dev.ikm.tinkar.composer.template.FullyQualifiedName;
 import dev.ikm.tinkar.composer.template.StatedAxiom;
 import dev.ikm.tinkar.common.service.EntityCountSummary;
+import dev.ikm.tinkar.entity.Entity;
 import dev.ikm.tinkar.entity.EntityService;
+import dev.ikm.tinkar.entity.EntityVersion;
 import dev.ikm.tinkar.entity.SemanticEntityVersion;
 import dev.ikm.tinkar.entity.load.LoadEntitiesFromProtobufFile;
 import dev.ikm.tinkar.terms.EntityProxy.Concept;
@@ -38,11 +40,14 @@
 
 import java.io.File;
 import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 import java.util.function.Function;
 
 import static dev.ikm.tinkar.terms.TinkarTerm.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 public class ComposeVersionsToMergeIT {
@@ -156,6 +161,97 @@ public void sessionDoubleCloseTest() {
     }
     // ### END: Write / Commit Ordering Tests
 
+    // ### START: Version Coalescing Tests
+    @Test
+    public void coalesceVersionsTest() {
+        PublicId pubIdWithTwoUuids = PublicIds.of(UUID.randomUUID(), UUID.randomUUID());
+        Concept conceptWithSingleUuid = Concept.make(PublicIds.of(pubIdWithTwoUuids.asUuidArray()[0]));
+        Concept conceptWithMultipleUuids = Concept.make(pubIdWithTwoUuids);
+        Composer composer = new Composer("coalesceVersionsTest").coalesceVersions();
+
+        // Compose a Version in each Session before either is committed
+        Session previousSession = composer.open(DEFAULT_STATUS, DEFAULT_TIME, DEFAULT_AUTHOR, DEFAULT_MODULE, DEFAULT_PATH);
+        previousSession.compose((ConceptAssembler conceptAssembler) -> conceptAssembler.concept(conceptWithSingleUuid));
+        Session laterSession = composer.open(DEFAULT_STATUS, System.currentTimeMillis(), DEFAULT_AUTHOR, DEFAULT_MODULE, DEFAULT_PATH);
+        laterSession.compose((ConceptAssembler conceptAssembler) -> conceptAssembler.concept(conceptWithMultipleUuids));
+        // Composing the same Component twice with one STAMP replaces the Version rather than adding one
+        laterSession.compose((ConceptAssembler conceptAssembler) -> conceptAssembler.concept(conceptWithMultipleUuids));
+        composer.commitAllSessions();
+
+        int expectedVersionCount = 2;
+        Entity<?> entity = EntityService.get().getEntityFast(conceptWithMultipleUuids.asUuidArray());
+        int actualVersionCount = entity.versions().size();
+        assertEquals(expectedVersionCount, actualVersionCount,
+                String.format("Expected %s versions after coalescing, but there were %s versions instead.", expectedVersionCount, actualVersionCount));
+        int expectedUuidCount = 2;
+        int actualUuidCount = entity.publicId().uuidCount();
+        assertEquals(expectedUuidCount, actualUuidCount,
+                String.format("Expected %s UUIDs after coalescing, but there were %s UUIDs instead.", expectedUuidCount, actualUuidCount));
+    }
+    @Test
+    public void coalesceVersionsWithParallelCommitsTest() {
+        Composer composer = new Composer("coalesceVersionsWithParallelCommitsTest").coalesceVersions();
+        int sessionCount = 16;
+        int conceptCount = 200;
+        List<Concept> concepts = new ArrayList<>();
+        for (int i = 0; i < conceptCount; i++) {
+            concepts.add(Concept.make(PublicIds.newRandom()));
+        }
+        // Every Session gives every Concept a Version, so each commit flushes Versions of the other Sessions too
+        long time = System.currentTimeMillis();
+        for (int sessionIdx = 0; sessionIdx < sessionCount; sessionIdx++) {
+            Session session = composer.open(DEFAULT_STATUS, time + sessionIdx, DEFAULT_AUTHOR, DEFAULT_MODULE, DEFAULT_PATH);
+            session.composeConcepts(concepts);
+        }
+
+        composer.commitAllSessionsAsync().join();
+
+        for (Concept concept : concepts) {
+            Entity<? extends EntityVersion> entity = EntityService.get().getEntityFast(concept.nid());
+            int actualVersionCount = entity.versions().size();
+            assertEquals(sessionCount, actualVersionCount,
+                    String.format("Expected %s versions after parallel commits, but there were %s versions instead.", sessionCount, actualVersionCount));
+            int distinctStampCount = entity.versions().collectInt(EntityVersion::stampNid).distinct().size();
+            assertEquals(sessionCount, distinctStampCount,
+                    String.format("Expected a Version for each of %s STAMPs, but there were %s STAMPs instead.", sessionCount, distinctStampCount));
+        }
+    }
+    // ### END: Version Coalescing Tests
+
+    // ### START: Deferred Write Tests
+    @Test
+    public void deferredWriteCommitTest() {
+        PublicId conceptId = PublicIds.newRandom();
+        Composer composer = new Composer("deferredWriteCommitTest");
+        Session session = composer.open(DEFAULT_STATUS, DEFAULT_TIME, DEFAULT_AUTHOR, DEFAULT_MODULE, DEFAULT_PATH)
+                .deferWrites();
+
+        session.compose((ConceptAssembler conceptAssembler) -> conceptAssembler.concept(Concept.make(conceptId)));
+        assertTrue(EntityService.get().getEntity(PrimitiveData.nid(conceptId)).isEmpty(),
+                "Expected a deferred Concept not to be written before commit.");
+        composer.commitSession(session);
+
+        int expectedVersionCount = 1;
+        int actualVersionCount = EntityService.get().getEntityFast(conceptId.asUuidArray()).versions().size();
+        assertEquals(expectedVersionCount, actualVersionCount,
+                String.format("Expected %s versions after commit, but there were %s versions instead.", expectedVersionCount, actualVersionCount));
+    }
+
+    @Test
+    public void deferredWriteCancelTest() {
+        PublicId conceptId = PublicIds.newRandom();
+        Composer composer = new Composer("deferredWriteCancelTest");
+        Session session = composer.open(DEFAULT_STATUS, DEFAULT_TIME, DEFAULT_AUTHOR, DEFAULT_MODULE, DEFAULT_PATH)
+                .deferWrites();
+
+        session.compose((ConceptAssembler conceptAssembler) -> conceptAssembler.concept(Concept.make(conceptId)));
+        composer.cancelSession(session);
+
+        assertTrue(EntityService.get().getEntity(PrimitiveData.nid(conceptId)).isEmpty(),
+                "Expected a deferred Concept to be discarded when the Session is cancelled.");
+    }
+    // ### END: Deferred Write Tests
+
     // ### START: Miscellaneous Tests
     @Test
     public void writeConceptWithOneThenMultipleUuids() {
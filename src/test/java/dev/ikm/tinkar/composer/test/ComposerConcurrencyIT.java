@@ -0,0 +1,234 @@
+/*
+ * Copyright © 2024 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.tinkar.composer.test;
+
+import dev.ikm.tinkar.common.id.PublicIds;
+import dev.ikm.tinkar.common.service.CachingService;
+import dev.ikm.tinkar.common.service.PrimitiveData;
+import dev.ikm.tinkar.common.service.ServiceKeys;
+import dev.ikm.tinkar.common.service.ServiceProperties;
+import dev.ikm.tinkar.composer.Composer;
+import dev.ikm.tinkar.composer.Session;
+import dev.ikm.tinkar.composer.SessionConsumer;
+import dev.ikm.tinkar.composer.assembler.ConceptAssembler;
+import dev.ikm.tinkar.composer.template.Comment;
+import dev.ikm.tinkar.terms.EntityProxy.Concept;
+import dev.ikm.tinkar.terms.State;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static dev.ikm.tinkar.terms.TinkarTerm.DEVELOPMENT_MODULE;
+import static dev.ikm.tinkar.terms.TinkarTerm.DEVELOPMENT_PATH;
+import static dev.ikm.tinkar.terms.TinkarTerm.USER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ComposerConcurrencyIT {
+    public static State DEFAULT_STATUS = State.ACTIVE;
+    public static Concept DEFAULT_AUTHOR = USER;
+    public static Concept DEFAULT_MODULE = DEVELOPMENT_MODULE;
+    public static Concept DEFAULT_PATH = DEVELOPMENT_PATH;
+    private static final int SESSION_KEY_COUNT = 64;
+    private static final int OPENS_PER_THREAD = 20_000;
+
+    private final Path datastore = Path.of(System.getProperty("user.dir"))
+            .resolve("target")
+            .resolve(ComposerConcurrencyIT.class.getSimpleName())
+            .resolve("datastore");
+
+    @BeforeAll
+    public void beforeAll() {
+        CachingService.clearAll();
+        ServiceProperties.set(ServiceKeys.DATA_STORE_ROOT, datastore.toFile());
+        PrimitiveData.selectControllerByName("Load Ephemeral Store");
+        PrimitiveData.start();
+    }
+
+    @AfterAll
+    public void afterAll() {
+        PrimitiveData.stop();
+    }
+
+    @Test
+    public void concurrentOpenReturnsSingleSessionPerStampTest() throws Exception {
+        Composer composer = new Composer("concurrentOpenReturnsSingleSessionPerStampTest");
+        int threadCount = Runtime.getRuntime().availableProcessors();
+        long time = System.currentTimeMillis();
+        Set<Session> sessions = ConcurrentHashMap.newKeySet();
+
+        runConcurrently(threadCount, threadIdx -> {
+            for (int i = 0; i < 1_000; i++) {
+                sessions.add(composer.open(DEFAULT_STATUS, time, DEFAULT_AUTHOR, DEFAULT_MODULE, DEFAULT_PATH));
+            }
+        });
+
+        assertEquals(1, sessions.size(),
+                String.format("Expected 1 Session for a single STAMP, but %s were opened instead.", sessions.size()));
+        composer.commitAllSessions();
+    }
+
+    @Test
+    public void concurrentCommitClosesEachSessionOnceTest() throws Exception {
+        Composer composer = new Composer("concurrentCommitClosesEachSessionOnceTest");
+        int threadCount = Runtime.getRuntime().availableProcessors();
+        List<Session> sessions = new ArrayList<>();
+        long time = System.currentTimeMillis();
+        for (int i = 0; i < SESSION_KEY_COUNT; i++) {
+            sessions.add(composer.open(DEFAULT_STATUS, time + i, DEFAULT_AUTHOR, DEFAULT_MODULE, DEFAULT_PATH));
+        }
+        Set<Session> committed = ConcurrentHashMap.newKeySet();
+        List<Session> duplicateCommits = new ArrayList<>();
+
+        runConcurrently(threadCount, threadIdx -> {
+            for (Session session : sessions) {
+                if (composer.commitSession(session) && !committed.add(session)) {
+                    synchronized (duplicateCommits) {
+                        duplicateCommits.add(session);
+                    }
+                }
+            }
+        });
+
+        assertEquals(SESSION_KEY_COUNT, committed.size(),
+                String.format("Expected %s committed Sessions, but %s were committed instead.", SESSION_KEY_COUNT, committed.size()));
+        assertEquals(0, duplicateCommits.size(),
+                String.format("Expected no Session to be committed twice, but %s were.", duplicateCommits.size()));
+    }
+
+    @Test
+    public void composeAllWritesEveryComponentTest() {
+        Composer composer = new Composer("composeAllWritesEveryComponentTest");
+        Session session = composer.open(DEFAULT_STATUS, System.currentTimeMillis(), DEFAULT_AUTHOR, DEFAULT_MODULE, DEFAULT_PATH);
+        int conceptCount = 2_000;
+
+        session.composeAll(IntStream.range(0, conceptCount).mapToObj(i -> (SessionConsumer) s -> s
+                .compose((ConceptAssembler conceptAssembler) -> conceptAssembler.publicId(PublicIds.newRandom()))
+                .attach(Comment.class, comment -> comment.text("Comment " + i))));
+
+        int expectedComponentsUpdatedCount = conceptCount * 2;
+        int actualComponentsUpdatedCount = session.componentsInSessionCount();
+        assertEquals(expectedComponentsUpdatedCount, actualComponentsUpdatedCount,
+                String.format("Expect %s updated components, but %s were updated instead.", expectedComponentsUpdatedCount, actualComponentsUpdatedCount));
+        composer.commitSession(session);
+    }
+
+    @Test
+    public void commitSessionAsyncTest() {
+        Composer composer = new Composer("commitSessionAsyncTest");
+        long time = System.currentTimeMillis();
+        List<CompletableFuture<Boolean>> commits = new ArrayList<>();
+        for (int i = 0; i < SESSION_KEY_COUNT; i++) {
+            Session session = composer.open(DEFAULT_STATUS, time + i, DEFAULT_AUTHOR, DEFAULT_MODULE, DEFAULT_PATH);
+            session.compose((ConceptAssembler conceptAssembler) -> conceptAssembler.publicId(PublicIds.newRandom()));
+            commits.add(composer.commitSessionAsync(session));
+            assertFalse(composer.commitSessionAsync(session).join(), "Expected a Session to be committed only once.");
+        }
+
+        long committedCount = commits.stream().filter(CompletableFuture::join).count();
+        assertEquals(SESSION_KEY_COUNT, committedCount,
+                String.format("Expected %s committed Sessions, but %s were committed instead.", SESSION_KEY_COUNT, committedCount));
+    }
+
+    @Test
+    public void commitAllSessionsAsyncTest() {
+        Composer composer = new Composer("commitAllSessionsAsyncTest");
+        long time = System.currentTimeMillis();
+        List<Session> sessions = new ArrayList<>();
+        for (int i = 0; i < SESSION_KEY_COUNT; i++) {
+            Session session = composer.open(DEFAULT_STATUS, time + i, DEFAULT_AUTHOR, DEFAULT_MODULE, DEFAULT_PATH);
+            session.compose((ConceptAssembler conceptAssembler) -> conceptAssembler.publicId(PublicIds.newRandom()));
+            sessions.add(session);
+        }
+
+        composer.commitAllSessionsAsync().join();
+
+        for (Session session : sessions) {
+            assertFalse(composer.commitSession(session), "Expected every Session to be committed by commitAllSessionsAsync.");
+        }
+    }
+
+    /**
+     * Contention benchmark for {@link Composer#open(State, long, Concept, Concept, Concept)}. Each thread repeatedly
+     * opens Sessions across a fixed set of STAMPs, so after warm-up every call is a lookup of an existing Session.
+     * Throughput is reported for 1 to N threads, where N is the number of available processors. Run with
+     * {@code -Dbenchmarks=true}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    public void openThroughputBenchmark(TestReporter testReporter) throws Exception {
+        int maxThreads = Runtime.getRuntime().availableProcessors();
+        long baseTime = System.currentTimeMillis();
+        for (int threadCount = 1; threadCount <= maxThreads; threadCount *= 2) {
+            Composer composer = new Composer("openThroughputBenchmark-" + threadCount);
+            for (int i = 0; i < SESSION_KEY_COUNT; i++) {
+                composer.open(DEFAULT_STATUS, baseTime + i, DEFAULT_AUTHOR, DEFAULT_MODULE, DEFAULT_PATH);
+            }
+
+            long start = System.nanoTime();
+            runConcurrently(threadCount, threadIdx -> {
+                for (int i = 0; i < OPENS_PER_THREAD; i++) {
+                    composer.open(DEFAULT_STATUS, baseTime + ((i + threadIdx) % SESSION_KEY_COUNT), DEFAULT_AUTHOR, DEFAULT_MODULE, DEFAULT_PATH);
+                }
+            });
+            long elapsedNanos = System.nanoTime() - start;
+
+            long totalOpens = (long) threadCount * OPENS_PER_THREAD;
+            testReporter.publishEntry("Composer.open", String.format("%2d threads, %,d opens in %,d ms (%,.0f opens/sec)",
+                    threadCount, totalOpens, elapsedNanos / 1_000_000, totalOpens / (elapsedNanos / 1e9)));
+            composer.cancelAllSessions();
+        }
+    }
+
+    private interface ThreadTask {
+        void run(int threadIdx) throws Exception;
+    }
+
+    private static void runConcurrently(int threadCount, ThreadTask task) throws Exception {
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(threadCount)) {
+            for (int threadIdx = 0; threadIdx < threadCount; threadIdx++) {
+                int idx = threadIdx;
+                futures.add(executor.submit(() -> {
+                    startLatch.await();
+                    task.run(idx);
+                    return null;
+                }));
+            }
+            startLatch.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+    }
+}
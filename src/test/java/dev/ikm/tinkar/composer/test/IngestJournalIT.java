@@ -0,0 +1,134 @@
+/*
+ * Copyright © 2024 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.tinkar.composer.test;
+
+import dev.ikm.tinkar.common.id.PublicIds;
+import dev.ikm.tinkar.common.service.CachingService;
+import dev.ikm.tinkar.common.service.PrimitiveData;
+import dev.ikm.tinkar.common.service.ServiceKeys;
+import dev.ikm.tinkar.common.service.ServiceProperties;
+import dev.ikm.tinkar.composer.Composer;
+import dev.ikm.tinkar.composer.IngestJournal;
+import dev.ikm.tinkar.composer.Session;
+import dev.ikm.tinkar.composer.assembler.ConceptAssembler;
+import dev.ikm.tinkar.terms.EntityProxy.Concept;
+import dev.ikm.tinkar.terms.State;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static dev.ikm.tinkar.terms.TinkarTerm.DEVELOPMENT_MODULE;
+import static dev.ikm.tinkar.terms.TinkarTerm.DEVELOPMENT_PATH;
+import static dev.ikm.tinkar.terms.TinkarTerm.USER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class IngestJournalIT {
+    public static State DEFAULT_STATUS = State.ACTIVE;
+    public static Concept DEFAULT_AUTHOR = USER;
+    public static Concept DEFAULT_MODULE = DEVELOPMENT_MODULE;
+    public static Concept DEFAULT_PATH = DEVELOPMENT_PATH;
+
+    private final Path datastore = Path.of(System.getProperty("user.dir"))
+            .resolve("target")
+            .resolve(IngestJournalIT.class.getSimpleName())
+            .resolve("datastore");
+
+    @BeforeAll
+    public void beforeAll() {
+        CachingService.clearAll();
+        ServiceProperties.set(ServiceKeys.DATA_STORE_ROOT, datastore.toFile());
+        PrimitiveData.selectControllerByName("Load Ephemeral Store");
+        PrimitiveData.start();
+    }
+
+    @AfterAll
+    public void afterAll() {
+        PrimitiveData.stop();
+    }
+
+    @Test
+    public void ingestJournalResumesAfterCommittedSessionsTest() throws IOException {
+        Path journalFile = datastore.resolveSibling("ingest.journal");
+        Files.deleteIfExists(journalFile);
+        long time = System.currentTimeMillis();
+        String source = "release.txt";
+
+        try (IngestJournal journal = IngestJournal.open(journalFile)) {
+            Composer composer = new Composer("ingestJournalResumesAfterCommittedSessionsTest").journal(journal);
+            for (int batch = 0; batch < 2; batch++) {
+                Session session = composer.open(DEFAULT_STATUS, time + batch, DEFAULT_AUTHOR, DEFAULT_MODULE, DEFAULT_PATH);
+                session.compose((ConceptAssembler conceptAssembler) -> conceptAssembler.publicId(PublicIds.newRandom()));
+                assertTrue(composer.commitSession(session, source, batch * 100L, (batch + 1) * 100L));
+            }
+        }
+        // Simulates a crash while the next entry was being written
+        Files.writeString(journalFile, "incomplete", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        try (IngestJournal journal = IngestJournal.open(journalFile)) {
+            assertEquals(200L, journal.resumeOffset(source),
+                    String.format("Expected to resume %s at 200, but resumed at %s instead.", source, journal.resumeOffset(source)));
+            assertEquals(0L, journal.resumeOffset("other.txt"));
+            assertTrue(journal.isCommitted(source, 50L, 150L), "Expected a range covered by two journaled batches to be committed.");
+            assertFalse(journal.isCommitted(source, 150L, 250L), "Expected a range past the journaled batches not to be committed.");
+            assertFalse(journal.isCommitted("other.txt", 0L, 100L), "Expected a range of another input not to be committed.");
+        }
+        assertFalse(Files.readString(journalFile, StandardCharsets.UTF_8).contains("incomplete"),
+                "Expected the incomplete entry to be dropped from the journal.");
+    }
+
+    @Test
+    public void ingestJournalResumesAtContiguousCommitsTest() throws IOException {
+        Path journalFile = datastore.resolveSibling("out-of-order.journal");
+        Files.deleteIfExists(journalFile);
+        long time = System.currentTimeMillis();
+        String source = "release.txt";
+
+        try (IngestJournal journal = IngestJournal.open(journalFile)) {
+            Composer composer = new Composer("ingestJournalResumesAtContiguousCommitsTest").journal(journal);
+            // The batch covering 100 to 200 is still being composed when the batches on either side of it commit
+            for (int batch : new int[] {2, 0, 3}) {
+                Session session = composer.open(DEFAULT_STATUS, time + batch, DEFAULT_AUTHOR, DEFAULT_MODULE, DEFAULT_PATH);
+                session.compose((ConceptAssembler conceptAssembler) -> conceptAssembler.publicId(PublicIds.newRandom()));
+                assertTrue(composer.commitSession(session, source, batch * 100L, (batch + 1) * 100L));
+            }
+            assertEquals(100L, journal.resumeOffset(source),
+                    String.format("Expected to resume %s at 100, but resumed at %s instead.", source, journal.resumeOffset(source)));
+            assertFalse(journal.isCommitted(source, 100L, 200L), "Expected the uncommitted gap not to be committed.");
+            assertTrue(journal.isCommitted(source, 200L, 400L), "Expected the batches after the gap to be committed.");
+        }
+
+        try (IngestJournal journal = IngestJournal.open(journalFile)) {
+            assertEquals(100L, journal.resumeOffset(source),
+                    String.format("Expected to resume %s at 100 after reopening, but resumed at %s instead.", source, journal.resumeOffset(source)));
+            Composer composer = new Composer("ingestJournalResumesAtContiguousCommitsTest-resumed").journal(journal);
+            Session session = composer.open(DEFAULT_STATUS, time + 1, DEFAULT_AUTHOR, DEFAULT_MODULE, DEFAULT_PATH);
+            session.compose((ConceptAssembler conceptAssembler) -> conceptAssembler.publicId(PublicIds.newRandom()));
+            assertTrue(composer.commitSession(session, source, 100L, 200L));
+            assertEquals(400L, journal.resumeOffset(source),
+                    String.format("Expected to resume %s at 400 once the gap is committed, but resumed at %s instead.", source, journal.resumeOffset(source)));
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright © 2024 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.tinkar.composer.test;
+
+import dev.ikm.tinkar.common.id.PublicIds;
+import dev.ikm.tinkar.common.service.CachingService;
+import dev.ikm.tinkar.common.service.PrimitiveData;
+import dev.ikm.tinkar.common.service.ServiceKeys;
+import dev.ikm.tinkar.common.service.ServiceProperties;
+import dev.ikm.tinkar.composer.Composer;
+import dev.ikm.tinkar.composer.IngestScheduler;
+import dev.ikm.tinkar.composer.Session;
+import dev.ikm.tinkar.composer.assembler.ConceptAssembler;
+import dev.ikm.tinkar.entity.ConceptEntity;
+import dev.ikm.tinkar.entity.ConceptEntityVersion;
+import dev.ikm.tinkar.entity.EntityService;
+import dev.ikm.tinkar.terms.EntityProxy.Concept;
+import dev.ikm.tinkar.terms.State;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static dev.ikm.tinkar.terms.TinkarTerm.DEVELOPMENT_MODULE;
+import static dev.ikm.tinkar.terms.TinkarTerm.DEVELOPMENT_PATH;
+import static dev.ikm.tinkar.terms.TinkarTerm.USER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class IngestSchedulerIT {
+    public static State DEFAULT_STATUS = State.ACTIVE;
+    public static Concept DEFAULT_AUTHOR = USER;
+    public static Concept DEFAULT_MODULE = DEVELOPMENT_MODULE;
+    public static Concept DEFAULT_PATH = DEVELOPMENT_PATH;
+
+    private final Path datastore = Path.of(System.getProperty("user.dir"))
+            .resolve("target")
+            .resolve(IngestSchedulerIT.class.getSimpleName())
+            .resolve("datastore");
+
+    @BeforeAll
+    public void beforeAll() {
+        CachingService.clearAll();
+        ServiceProperties.set(ServiceKeys.DATA_STORE_ROOT, datastore.toFile());
+        PrimitiveData.selectControllerByName("Load Ephemeral Store");
+        PrimitiveData.start();
+    }
+
+    @AfterAll
+    public void afterAll() {
+        PrimitiveData.stop();
+    }
+
+    @Test
+    public void ingestSchedulerPartitionsByStampTest() {
+        Composer composer = new Composer("ingestSchedulerPartitionsByStampTest");
+        long time = System.currentTimeMillis();
+        int stampCount = 3;
+        int conceptsPerStamp = 10;
+        List<Concept> concepts = new ArrayList<>();
+        IngestScheduler scheduler = new IngestScheduler(composer).batchSize(4);
+
+        // Rows interleave STAMPs, as in a source file ordered by Component rather than by STAMP
+        for (int i = 0; i < stampCount * conceptsPerStamp; i++) {
+            Concept concept = Concept.make(PublicIds.newRandom());
+            concepts.add(concept);
+            scheduler.submit(DEFAULT_STATUS, time + (i % stampCount), DEFAULT_AUTHOR, DEFAULT_MODULE, DEFAULT_PATH,
+                    session -> session.compose((ConceptAssembler conceptAssembler) -> conceptAssembler.concept(concept)));
+        }
+        assertEquals(stampCount, scheduler.partitionCount(),
+                String.format("Expected %s Partitions, but %s were created instead.", stampCount, scheduler.partitionCount()));
+
+        assertTrue(scheduler.complete(DEFAULT_STATUS, time, DEFAULT_AUTHOR, DEFAULT_MODULE, DEFAULT_PATH),
+                "Expected the Partition of the first STAMP to be completed.");
+        assertFalse(scheduler.complete(DEFAULT_STATUS, time, DEFAULT_AUTHOR, DEFAULT_MODULE, DEFAULT_PATH),
+                "Expected a Partition to be completed only once.");
+        assertEquals(stampCount - 1, scheduler.partitionCount());
+        scheduler.close();
+        assertEquals(0, scheduler.partitionCount());
+
+        for (int i = 0; i < concepts.size(); i++) {
+            ConceptEntity<ConceptEntityVersion> concept = EntityService.get().getEntityFast(concepts.get(i).nid());
+            long expectedTime = time + (i % stampCount);
+            long actualTime = concept.versions().get(0).stamp().time();
+            assertEquals(expectedTime, actualTime,
+                    String.format("Expected Concept %s to be composed at %s, but was composed at %s instead.", i, expectedTime, actualTime));
+        }
+    }
+
+    @Test
+    public void closeCommitsPartitionsAfterFailureTest() {
+        Composer composer = new Composer("closeCommitsPartitionsAfterFailureTest");
+        long time = System.currentTimeMillis();
+        IngestScheduler scheduler = new IngestScheduler(composer);
+        Concept concept = Concept.make(PublicIds.newRandom());
+        scheduler.submit(DEFAULT_STATUS, time, DEFAULT_AUTHOR, DEFAULT_MODULE, DEFAULT_PATH,
+                session -> session.compose((ConceptAssembler conceptAssembler) -> conceptAssembler.concept(concept)));
+        List<Session> failedSessions = new ArrayList<>();
+        for (int i = 1; i <= 2; i++) {
+            String message = "Partition " + i + " failed";
+            scheduler.submit(DEFAULT_STATUS, time + i, DEFAULT_AUTHOR, DEFAULT_MODULE, DEFAULT_PATH, session -> {
+                failedSessions.add(session);
+                throw new IllegalStateException(message);
+            });
+        }
+
+        IllegalStateException failure = assertThrows(IllegalStateException.class, scheduler::close,
+                "Expected close to rethrow the failure of a Partition.");
+        assertEquals(1, failure.getSuppressed().length,
+                String.format("Expected the second failure to be suppressed, but %s were suppressed instead.", failure.getSuppressed().length));
+        assertEquals(0, scheduler.partitionCount());
+        ConceptEntity<ConceptEntityVersion> entity = EntityService.get().getEntityFast(concept.nid());
+        assertEquals(time, entity.versions().get(0).stamp().time(),
+                "Expected the Partition without a failure to be composed and committed.");
+        for (Session failedSession : failedSessions) {
+            assertFalse(composer.cancelSession(failedSession), "Expected the Session of a failed Partition to be cancelled by close.");
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright © 2024 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.tinkar.composer.test;
+
+import dev.ikm.tinkar.common.id.PublicIds;
+import dev.ikm.tinkar.common.service.CachingService;
+import dev.ikm.tinkar.common.service.PrimitiveData;
+import dev.ikm.tinkar.common.service.ServiceKeys;
+import dev.ikm.tinkar.common.service.ServiceProperties;
+import dev.ikm.tinkar.common.util.uuid.UuidUtil;
+import dev.ikm.tinkar.composer.Composer;
+import dev.ikm.tinkar.composer.Session;
+import dev.ikm.tinkar.composer.rf2.Rf2ImportSummary;
+import dev.ikm.tinkar.composer.rf2.Rf2Importer;
+import dev.ikm.tinkar.entity.EntityService;
+import dev.ikm.tinkar.entity.SemanticEntity;
+import dev.ikm.tinkar.entity.SemanticEntityVersion;
+import dev.ikm.tinkar.terms.State;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static dev.ikm.tinkar.terms.TinkarTerm.DEVELOPMENT_MODULE;
+import static dev.ikm.tinkar.terms.TinkarTerm.DEVELOPMENT_PATH;
+import static dev.ikm.tinkar.terms.TinkarTerm.USER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class Rf2ImporterIT {
+
+    private final Path datastore = Path.of(System.getProperty("user.dir"))
+            .resolve("target")
+            .resolve(Rf2ImporterIT.class.getSimpleName())
+            .resolve("datastore");
+    private final Path release = Path.of(System.getProperty("user.dir"))
+            .resolve("target")
+            .resolve(Rf2ImporterIT.class.getSimpleName())
+            .resolve("release");
+
+    @BeforeAll
+    public void beforeAll() {
+        CachingService.clearAll();
+        ServiceProperties.set(ServiceKeys.DATA_STORE_ROOT, datastore.toFile());
+        PrimitiveData.selectControllerByName("Load Ephemeral Store");
+        PrimitiveData.start();
+    }
+
+    @AfterAll
+    public void afterAll() {
+        PrimitiveData.stop();
+    }
+
+    @Test
+    public void importReleaseTest() throws IOException {
+        UUID usDialectMemberId = UUID.randomUUID();
+        UUID axiomMemberId = UUID.randomUUID();
+        Files.createDirectories(release);
+        Files.write(release.resolve("sct2_Concept_Snapshot_INT_20250101.txt"), List.of(
+                "id\teffectiveTime\tactive\tmoduleId\tdefinitionStatusId",
+                "138875005\t20020131\t1\t900000000000207008\t900000000000074008",
+                "404684003\t20020131\t1\t900000000000207008\t900000000000074008",
+                "22298006\t20250101\t1\t900000000000207008\t900000000000073002"));
+        Files.write(release.resolve("sct2_Description_Snapshot-en_INT_20250101.txt"), List.of(
+                "id\teffectiveTime\tactive\tmoduleId\tconceptId\tlanguageCode\ttypeId\tterm\tcaseSignificanceId",
+                "751689013\t20020131\t1\t900000000000207008\t22298006\ten\t900000000000003001\tMyocardial infarction (disorder)\t900000000000448009",
+                "37436014\t20020131\t1\t900000000000207008\t22298006\ten\t900000000000013009\tHeart attack\t900000000000448009",
+                "3304961016\t20020131\t1\t900000000000207008\t22298006\tsv\t900000000000013009\tHjartinfarkt\t900000000000448009"));
+        Files.write(release.resolve("der2_cRefset_LanguageSnapshot-en_INT_20250101.txt"), List.of(
+                "id\teffectiveTime\tactive\tmoduleId\trefsetId\treferencedComponentId\tacceptabilityId",
+                usDialectMemberId + "\t20020131\t1\t900000000000207008\t900000000000509007\t37436014\t900000000000548007",
+                UUID.randomUUID() + "\t20020131\t1\t900000000000207008\t999001261000000100\t37436014\t900000000000548007"));
+        Files.write(release.resolve("sct2_sRefset_OWLExpressionSnapshot_INT_20250101.txt"), List.of(
+                "id\teffectiveTime\tactive\tmoduleId\trefsetId\treferencedComponentId\towlExpression",
+                axiomMemberId + "\t20250101\t1\t900000000000207008\t733073007\t22298006\tSubClassOf(:22298006 :404684003)",
+                UUID.randomUUID() + "\t20250101\t1\t900000000000207008\t762103008\t22298006\tPrefix(:=<http://snomed.info/id/>)"));
+
+        Composer composer = new Composer("importReleaseTest");
+        Session unrelatedSession = composer.open(State.ACTIVE, USER, DEVELOPMENT_MODULE, DEVELOPMENT_PATH);
+        Rf2ImportSummary summary = new Rf2Importer(composer, USER, DEVELOPMENT_PATH)
+                .batchSize(2)
+                .maxPendingComponents(2)
+                .importRelease(release);
+
+        assertEquals(new Rf2ImportSummary(3, 2, 1, 1, 3, summary.elapsed()), summary);
+        assertTrue(composer.cancelSession(unrelatedSession), "Expected a Session the import did not open to be left open.");
+        SemanticEntity<SemanticEntityVersion> synonym = EntityService.get().getEntityFast(PublicIds.of(UuidUtil.fromSNOMED("37436014")).asUuidArray());
+        assertEquals("Heart attack", synonym.versions().get(0).fieldValues().get(1));
+        SemanticEntity<SemanticEntityVersion> usDialect = EntityService.get().getEntityFast(PublicIds.of(usDialectMemberId).asUuidArray());
+        assertEquals(synonym.nid(), usDialect.referencedComponentNid());
+        SemanticEntity<SemanticEntityVersion> axiom = EntityService.get().getEntityFast(PublicIds.of(axiomMemberId).asUuidArray());
+        String expectedAxiom = "SubClassOf(:" + PublicIds.of(UuidUtil.fromSNOMED("22298006")).toString().replace("\"", "")
+                + " :" + PublicIds.of(UuidUtil.fromSNOMED("404684003")).toString().replace("\"", "") + ")";
+        assertEquals(expectedAxiom, axiom.versions().get(0).fieldValues().get(0));
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright © 2024 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.tinkar.composer.test;
+
+import dev.ikm.tinkar.composer.SemanticTemplate;
+import dev.ikm.tinkar.composer.generator.SemanticTemplateProcessor;
+import dev.ikm.tinkar.terms.EntityProxy.Concept;
+import org.junit.jupiter.api.Test;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SemanticTemplateProcessorIT {
+
+    private static final String PATTERN_UUID = "1f8e0a7c-5b1a-4d2a-9d67-2a5c6f0b3e21";
+
+    private final Path output = Path.of(System.getProperty("user.dir"))
+            .resolve("target")
+            .resolve(SemanticTemplateProcessorIT.class.getSimpleName());
+
+    @Test
+    public void generateTemplateTest() throws Exception {
+        Path classes = output.resolve("generateTemplateTest");
+        List<Diagnostic<? extends JavaFileObject>> errors = compile(classes, "sample.Measurement", """
+                package sample;
+
+                import dev.ikm.tinkar.composer.generator.TemplateField;
+                import dev.ikm.tinkar.composer.generator.TemplatePattern;
+                import dev.ikm.tinkar.terms.EntityProxy.Concept;
+
+                @TemplatePattern(pattern = "%s")
+                public interface Measurement {
+                    @TemplateField(intern = true) String unit();
+                    float value();
+                    @TemplateField(optional = true) Concept method();
+                }
+                """.formatted(PATTERN_UUID));
+        assertEquals(List.of(), messages(errors), "Expected the generated MeasurementTemplate to compile without errors.");
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] {classes.toUri().toURL()}, getClass().getClassLoader())) {
+            Class<?> templateClass = classLoader.loadClass("sample.MeasurementTemplate");
+            assertTrue(SemanticTemplate.class.isAssignableFrom(templateClass), "Expected the generated template to extend SemanticTemplate.");
+            Method unit = templateClass.getMethod("unit", String.class);
+            Method value = templateClass.getMethod("value", float.class);
+            Method method = templateClass.getMethod("method", Concept.class);
+            for (Method setter : List.of(unit, value, method)) {
+                assertEquals(templateClass, setter.getReturnType(),
+                        String.format("Expected setter %s to return the template for chaining.", setter.getName()));
+            }
+
+            Object template = templateClass.getConstructor().newInstance();
+            Method validate = templateClass.getDeclaredMethod("validate");
+            validate.setAccessible(true);
+            InvocationTargetException missingFields = assertThrows(InvocationTargetException.class, () -> validate.invoke(template),
+                    "Expected validate to fail before the required fields are set.");
+            IllegalArgumentException missingFieldsCause = assertInstanceOf(IllegalArgumentException.class, missingFields.getCause());
+            assertEquals("MeasurementTemplate requires unit and value", missingFieldsCause.getMessage());
+
+            unit.invoke(template, "mg");
+            InvocationTargetException missingValue = assertThrows(InvocationTargetException.class, () -> validate.invoke(template),
+                    "Expected validate to fail while the primitive value field is unset.");
+            assertInstanceOf(IllegalArgumentException.class, missingValue.getCause());
+
+            value.invoke(template, 1.5f);
+            validate.invoke(template);
+        }
+    }
+
+    @Test
+    public void unsupportedFieldTypeTest() throws IOException {
+        List<Diagnostic<? extends JavaFileObject>> errors = compile(output.resolve("unsupportedFieldTypeTest"), "sample.Scheduled", """
+                package sample;
+
+                import dev.ikm.tinkar.composer.generator.TemplatePattern;
+
+                @TemplatePattern(pattern = "%s")
+                public interface Scheduled {
+                    java.util.Date scheduled();
+                }
+                """.formatted(PATTERN_UUID));
+        assertEquals(List.of("Pattern field scheduled has unsupported type java.util.Date"), messages(errors));
+    }
+
+    @Test
+    public void internNonStringFieldTest() throws IOException {
+        List<Diagnostic<? extends JavaFileObject>> errors = compile(output.resolve("internNonStringFieldTest"), "sample.Reading", """
+                package sample;
+
+                import dev.ikm.tinkar.composer.generator.TemplateField;
+                import dev.ikm.tinkar.composer.generator.TemplatePattern;
+
+                @TemplatePattern(pattern = "%s")
+                public interface Reading {
+                    @TemplateField(intern = true) float value();
+                }
+                """.formatted(PATTERN_UUID));
+        assertEquals(List.of("Pattern field value can only be interned if it is a String"), messages(errors));
+    }
+
+    @Test
+    public void malformedPatternUuidTest() throws IOException {
+        List<Diagnostic<? extends JavaFileObject>> errors = compile(output.resolve("malformedPatternUuidTest"), "sample.Malformed", """
+                package sample;
+
+                import dev.ikm.tinkar.composer.generator.TemplatePattern;
+
+                @TemplatePattern(pattern = "not-a-uuid")
+                public interface Malformed {
+                    String text();
+                }
+                """);
+        assertEquals(List.of("Invalid Pattern UUID: not-a-uuid"), messages(errors));
+    }
+
+    /**
+     * Compiles one source file with {@link SemanticTemplateProcessor} against the classpath of the tests, and provides
+     * the errors reported.
+     */
+    private static List<Diagnostic<? extends JavaFileObject>> compile(Path classes, String typeName, String source) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertNotNull(compiler, "Expected tests to run on a JDK with a system Java compiler.");
+        Path sources = classes.resolve("sources");
+        Path sourceFile = sources.resolve(typeName.replace('.', File.separatorChar) + ".java");
+        Files.createDirectories(sourceFile.getParent());
+        Files.writeString(sourceFile, source);
+
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null)) {
+            fileManager.setLocationFromPaths(StandardLocation.CLASS_OUTPUT, List.of(classes));
+            fileManager.setLocationFromPaths(StandardLocation.SOURCE_OUTPUT, List.of(sources));
+            List<String> options = List.of("-classpath", testClasspath(), "-proc:full");
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null,
+                    fileManager.getJavaFileObjects(sourceFile));
+            task.setProcessors(List.of(new SemanticTemplateProcessor()));
+            task.call();
+        }
+        List<Diagnostic<? extends JavaFileObject>> errors = new ArrayList<>();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                errors.add(diagnostic);
+            }
+        }
+        return errors;
+    }
+
+    // Modular test runs place the dependencies on the module path, which the sample is compiled against as a classpath
+    private static String testClasspath() {
+        return Stream.of(System.getProperty("java.class.path"), System.getProperty("jdk.module.path"))
+                .filter(path -> path != null && !path.isEmpty())
+                .collect(Collectors.joining(File.pathSeparator));
+    }
+
+    private static List<String> messages(List<Diagnostic<? extends JavaFileObject>> diagnostics) {
+        return diagnostics.stream().map(diagnostic -> diagnostic.getMessage(null)).toList();
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright © 2024 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.tinkar.composer.test;
+
+import dev.ikm.tinkar.common.id.PublicIds;
+import dev.ikm.tinkar.common.service.CachingService;
+import dev.ikm.tinkar.common.service.PrimitiveData;
+import dev.ikm.tinkar.common.service.ServiceKeys;
+import dev.ikm.tinkar.common.service.ServiceProperties;
+import dev.ikm.tinkar.composer.Composer;
+import dev.ikm.tinkar.composer.FlushPolicy;
+import dev.ikm.tinkar.composer.Session;
+import dev.ikm.tinkar.composer.assembler.ConceptAssembler;
+import dev.ikm.tinkar.entity.ConceptEntity;
+import dev.ikm.tinkar.entity.ConceptEntityVersion;
+import dev.ikm.tinkar.entity.EntityService;
+import dev.ikm.tinkar.entity.StampEntity;
+import dev.ikm.tinkar.terms.EntityProxy.Concept;
+import dev.ikm.tinkar.terms.State;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static dev.ikm.tinkar.terms.TinkarTerm.DEVELOPMENT_MODULE;
+import static dev.ikm.tinkar.terms.TinkarTerm.DEVELOPMENT_PATH;
+import static dev.ikm.tinkar.terms.TinkarTerm.USER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class SessionFlushIT {
+    public static State DEFAULT_STATUS = State.ACTIVE;
+    public static Concept DEFAULT_AUTHOR = USER;
+    public static Concept DEFAULT_MODULE = DEVELOPMENT_MODULE;
+    public static Concept DEFAULT_PATH = DEVELOPMENT_PATH;
+
+    private final Path datastore = Path.of(System.getProperty("user.dir"))
+            .resolve("target")
+            .resolve(SessionFlushIT.class.getSimpleName())
+            .resolve("datastore");
+
+    @BeforeAll
+    public void beforeAll() {
+        CachingService.clearAll();
+        ServiceProperties.set(ServiceKeys.DATA_STORE_ROOT, datastore.toFile());
+        PrimitiveData.selectControllerByName("Load Ephemeral Store");
+        PrimitiveData.start();
+    }
+
+    @AfterAll
+    public void afterAll() {
+        PrimitiveData.stop();
+    }
+
+    @Test
+    public void autoFlushRollsTransactionsTest() {
+        Composer composer = new Composer("autoFlushRollsTransactionsTest");
+        // Time is set at commit, so a Version is only given a time once its Transaction has been committed
+        Session session = composer.open(DEFAULT_STATUS, DEFAULT_AUTHOR, DEFAULT_MODULE, DEFAULT_PATH)
+                .autoFlush(FlushPolicy.componentCount(3));
+        int conceptCount = 10;
+        List<Concept> concepts = new ArrayList<>();
+        for (int i = 0; i < conceptCount; i++) {
+            Concept concept = Concept.make(PublicIds.newRandom());
+            concepts.add(concept);
+            session.compose((ConceptAssembler conceptAssembler) -> conceptAssembler.concept(concept));
+        }
+
+        // The policy is checked before each compose, so the 4th, 7th, and 10th compose each roll the Transaction
+        int expectedFlushCount = 3;
+        Set<Integer> stampNids = new HashSet<>();
+        int committedBeforeSessionCommitCount = 0;
+        for (Concept concept : concepts) {
+            StampEntity<?> stamp = stamp(concept);
+            stampNids.add(stamp.nid());
+            if (stamp.time() != Long.MAX_VALUE) {
+                committedBeforeSessionCommitCount++;
+            }
+        }
+        int actualFlushCount = stampNids.size() - 1;
+        assertEquals(expectedFlushCount, actualFlushCount,
+                String.format("Expected %s flushes, but the Session rolled its Transaction %s times instead.", expectedFlushCount, actualFlushCount));
+        int expectedCommittedCount = expectedFlushCount * 3;
+        assertEquals(expectedCommittedCount, committedBeforeSessionCommitCount,
+                String.format("Expected %s Concepts committed by flushes, but %s were committed instead.", expectedCommittedCount, committedBeforeSessionCommitCount));
+
+        composer.commitSession(session);
+
+        int actualComponentsUpdatedCount = session.componentsInSessionCount();
+        assertEquals(conceptCount, actualComponentsUpdatedCount,
+                String.format("Expect %s updated components, but %s were updated instead.", conceptCount, actualComponentsUpdatedCount));
+        for (Concept concept : concepts) {
+            ConceptEntity<ConceptEntityVersion> entity = EntityService.get().getEntityFast(concept.nid());
+            assertEquals(1, entity.versions().size(),
+                    String.format("Expected 1 version after flush, but there were %s versions instead.", entity.versions().size()));
+        }
+        for (Concept concept : concepts) {
+            assertNotEquals(Long.MAX_VALUE, stamp(concept).time(), "Expected every STAMP of the Session to be committed.");
+        }
+    }
+
+    @Test
+    public void noFlushWithoutPolicyTest() {
+        Composer composer = new Composer("noFlushWithoutPolicyTest");
+        Session session = composer.open(DEFAULT_STATUS, DEFAULT_AUTHOR, DEFAULT_MODULE, DEFAULT_PATH);
+        List<Concept> concepts = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Concept concept = Concept.make(PublicIds.newRandom());
+            concepts.add(concept);
+            session.compose((ConceptAssembler conceptAssembler) -> conceptAssembler.concept(concept));
+        }
+
+        long distinctStampCount = concepts.stream().mapToInt(concept -> stamp(concept).nid()).distinct().count();
+        assertEquals(1, distinctStampCount,
+                String.format("Expected 1 Transaction without a FlushPolicy, but %s were used instead.", distinctStampCount));
+        assertEquals(0, concepts.stream().filter(concept -> stamp(concept).time() != Long.MAX_VALUE).count(),
+                "Expected no Concept to be committed before the Session is committed.");
+        composer.commitSession(session);
+    }
+
+    @Test
+    public void autoFlushRejectsDerivedNavigationTest() {
+        Composer composer = new Composer("autoFlushRejectsDerivedNavigationTest");
+        Session flushedSession = composer.open(DEFAULT_STATUS, DEFAULT_AUTHOR, DEFAULT_MODULE, DEFAULT_PATH)
+                .autoFlush(FlushPolicy.componentCount(3));
+        assertThrows(IllegalStateException.class, flushedSession::deriveStatedNavigation,
+                "Expected a Session flushed automatically to reject deriving StatedNavigation.");
+        composer.cancelSession(flushedSession);
+
+        Session navigationSession = composer.open(DEFAULT_STATUS, DEFAULT_AUTHOR, DEFAULT_MODULE, DEFAULT_PATH)
+                .deriveStatedNavigation();
+        assertThrows(IllegalStateException.class, () -> navigationSession.autoFlush(FlushPolicy.componentCount(3)),
+                "Expected a Session deriving StatedNavigation to reject automatic flushing.");
+        composer.cancelSession(navigationSession);
+    }
+
+    private static StampEntity<?> stamp(Concept concept) {
+        ConceptEntity<ConceptEntityVersion> entity = EntityService.get().getEntityFast(concept.nid());
+        return entity.versions().get(0).stamp();
+    }
+}
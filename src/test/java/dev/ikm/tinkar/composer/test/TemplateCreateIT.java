@@ -16,16 +16,22 @@
  * limitations under the License.
  */
 
+import dev.ikm.tinkar.common.id.IntIdSet;
 import dev.ikm.tinkar.common.id.PublicIds;
 import dev.ikm.tinkar.common.service.CachingService;
 import dev.ikm.tinkar.common.service.PrimitiveData;
 import dev.ikm.tinkar.common.service.ServiceKeys;
 import dev.ikm.tinkar.common.service.ServiceProperties;
+import dev.ikm.tinkar.composer.Attachable;
 import dev.ikm.tinkar.composer.Composer;
+import dev.ikm.tinkar.composer.SemanticTemplates;
+import dev.ikm.tinkar.composer.SingleSemanticIds;
 import dev.ikm.tinkar.composer.Session;
+import dev.ikm.tinkar.composer.assembler.ConceptAssembler;
 import dev.ikm.tinkar.composer.template.AxiomSyntax;
 import dev.ikm.tinkar.composer.template.Comment;
 import dev.ikm.tinkar.composer.template.Definition;
+import dev.ikm.tinkar.composer.template.Description;
 import dev.ikm.tinkar.composer.template.FullyQualifiedName;
 import dev.ikm.tinkar.composer.template.GBDialect;
 import dev.ikm.tinkar.composer.template.Identifier;
@@ -36,29 +42,59 @@
 import dev.ikm.tinkar.composer.template.USDialect;
 import dev.ikm.tinkar.composer.test.template.CustomSemantic;
 import dev.ikm.tinkar.common.service.EntityCountSummary;
+import dev.ikm.tinkar.entity.EntityService;
+import dev.ikm.tinkar.entity.SemanticEntity;
+import dev.ikm.tinkar.entity.SemanticEntityVersion;
+import dev.ikm.tinkar.entity.graph.DiTreeEntity;
 import dev.ikm.tinkar.entity.load.LoadEntitiesFromProtobufFile;
 import dev.ikm.tinkar.terms.EntityProxy.Concept;
 import dev.ikm.tinkar.terms.State;
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.ImmutableList;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
 
 import java.io.File;
 import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
+import static dev.ikm.tinkar.terms.TinkarTerm.ACCEPTABLE;
+import static dev.ikm.tinkar.terms.TinkarTerm.AND;
+import static dev.ikm.tinkar.terms.TinkarTerm.CONCEPT_REFERENCE;
+import static dev.ikm.tinkar.terms.TinkarTerm.DEFINITION_ROOT;
 import static dev.ikm.tinkar.terms.TinkarTerm.DESCRIPTION_NOT_CASE_SENSITIVE;
 import static dev.ikm.tinkar.terms.TinkarTerm.DEVELOPMENT_MODULE;
 import static dev.ikm.tinkar.terms.TinkarTerm.DEVELOPMENT_PATH;
+import static dev.ikm.tinkar.terms.TinkarTerm.EL_PLUS_PLUS_STATED_AXIOMS_PATTERN;
 import static dev.ikm.tinkar.terms.TinkarTerm.ENGLISH_LANGUAGE;
+import static dev.ikm.tinkar.terms.TinkarTerm.FULLY_QUALIFIED_NAME_DESCRIPTION_TYPE;
+import static dev.ikm.tinkar.terms.TinkarTerm.NECESSARY_SET;
 import static dev.ikm.tinkar.terms.TinkarTerm.PREFERRED;
+import static dev.ikm.tinkar.terms.TinkarTerm.REGULAR_NAME_DESCRIPTION_TYPE;
 import static dev.ikm.tinkar.terms.TinkarTerm.ROOT_VERTEX;
+import static dev.ikm.tinkar.terms.TinkarTerm.STATED_NAVIGATION_PATTERN;
 import static dev.ikm.tinkar.terms.TinkarTerm.UNIVERSALLY_UNIQUE_IDENTIFIER;
 import static dev.ikm.tinkar.terms.TinkarTerm.USER;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 public class TemplateCreateIT {
@@ -213,6 +249,54 @@ public void createGBDialectTemplateTest() {
     }
 
 
+    @Test
+    public void createDescriptionWithDialectsTemplateTest() {
+        Concept referenceConcept = Concept.make(PublicIds.newRandom());
+        Composer composer = new Composer("createDescriptionWithDialectsTemplateTest");
+        Session session = composer.open(DEFAULT_STATUS, DEFAULT_TIME, DEFAULT_AUTHOR, DEFAULT_MODULE, DEFAULT_PATH);
+
+        session.compose(new Description()
+                .language(ENGLISH_LANGUAGE)
+                .text("Description from Template")
+                .caseSignificance(DESCRIPTION_NOT_CASE_SENSITIVE)
+                .type(REGULAR_NAME_DESCRIPTION_TYPE)
+                .usDialect(PREFERRED)
+                .gbDialect(ACCEPTABLE), referenceConcept);
+        session.compose((ConceptAssembler conceptAssembler) -> conceptAssembler
+                .concept(referenceConcept)
+                .attach(Description.class, description -> description
+                        .language(ENGLISH_LANGUAGE)
+                        .text("Attached Description from Template")
+                        .caseSignificance(DESCRIPTION_NOT_CASE_SENSITIVE)
+                        .type(FULLY_QUALIFIED_NAME_DESCRIPTION_TYPE)
+                        .usDialect(PREFERRED)));
+
+        composer.commitSession(session);
+        // 2 descriptions, 3 dialects, and the Concept
+        int expectedComponentsUpdatedCount = 6;
+        int actualComponentsUpdatedCount = session.componentsInSessionCount();
+        assertEquals(expectedComponentsUpdatedCount, actualComponentsUpdatedCount,
+                String.format("Expect %s updated components, but %s were updated instead.", expectedComponentsUpdatedCount, actualComponentsUpdatedCount));
+    }
+
+    @Test
+    public void descriptionWithoutReferenceTest() {
+        Composer composer = new Composer("descriptionWithoutReferenceTest");
+        Session session = composer.open(DEFAULT_STATUS, DEFAULT_TIME, DEFAULT_AUTHOR, DEFAULT_MODULE, DEFAULT_PATH);
+
+        assertThrows(IllegalArgumentException.class, () -> session.compose(new Description()
+                .language(ENGLISH_LANGUAGE)
+                .text("Description without Reference")
+                .caseSignificance(DESCRIPTION_NOT_CASE_SENSITIVE)
+                .type(REGULAR_NAME_DESCRIPTION_TYPE)
+                .usDialect(PREFERRED), null), "Expected a Description without a reference to fail validation.");
+
+        composer.commitSession(session);
+        assertEquals(0, session.componentsInSessionCount(),
+                String.format("Expect no updated components, but %s were updated instead.", session.componentsInSessionCount()));
+    }
+
+
     @Test
     public void createIdentifierTemplateTest() {
         Concept referenceConcept = Concept.make(PublicIds.newRandom());
@@ -246,6 +330,27 @@ public void createStatedAxiomTemplateTest() {
                 String.format("Expect %s updated components, but %s were updated instead.", expectedComponentsUpdatedCount, actualComponentsUpdatedCount));
     }
 
+    @Test
+    public void statedAxiomVertexOrderTest() {
+        Concept referenceConcept = Concept.make(PublicIds.newRandom());
+        Concept secondParent = Concept.make(PublicIds.newRandom());
+        Composer composer = new Composer("statedAxiomVertexOrderTest");
+        Session session = composer.open(DEFAULT_STATUS, DEFAULT_TIME, DEFAULT_AUTHOR, DEFAULT_MODULE, DEFAULT_PATH);
+
+        session.compose(new StatedAxiom()
+                .isA(ROOT_VERTEX)
+                .isA(secondParent), referenceConcept);
+
+        composer.commitSession(session);
+        SemanticEntity<SemanticEntityVersion> statedAxiom = EntityService.get().getEntityFast(
+                SingleSemanticIds.of(EL_PLUS_PLUS_STATED_AXIOMS_PATTERN, referenceConcept).asUuidArray());
+        DiTreeEntity axiomTree = (DiTreeEntity) statedAxiom.versions().get(0).fieldValues().get(0);
+        // Root, parents, and, necessary set, in the order written before axioms supported roles
+        int[] expectedMeaningNids = {DEFINITION_ROOT.nid(), CONCEPT_REFERENCE.nid(), CONCEPT_REFERENCE.nid(), AND.nid(), NECESSARY_SET.nid()};
+        int[] actualMeaningNids = axiomTree.vertexMap().collectInt(vertex -> vertex.meaning().nid()).toArray();
+        assertArrayEquals(expectedMeaningNids, actualMeaningNids, "Expected vertices in the order root, parents, and, necessary set.");
+    }
+
     @Test
     public void createKometBaseModelTemplateTest() {
         Concept referenceConcept = Concept.make(PublicIds.newRandom());
@@ -292,4 +397,303 @@ public void createCustomSemanticTemplateTest() {
                 String.format("Expect %s updated components, but %s were updated instead.", expectedComponentsUpdatedCount, actualComponentsUpdatedCount));
     }
 
+    @Test
+    public void attachRegisteredCustomSemanticTemplateTest() {
+        AtomicInteger createdCount = new AtomicInteger();
+        Supplier<CustomSemantic> originalFactory = SemanticTemplates.factory(CustomSemantic.class);
+        SemanticTemplates.register(CustomSemantic.class, () -> {
+            createdCount.incrementAndGet();
+            return new CustomSemantic();
+        });
+        Composer composer = new Composer("attachRegisteredCustomSemanticTemplateTest");
+        Session session = composer.open(DEFAULT_STATUS, DEFAULT_TIME, DEFAULT_AUTHOR, DEFAULT_MODULE, DEFAULT_PATH);
+
+        try {
+            session.compose((ConceptAssembler conceptAssembler) -> conceptAssembler.publicId(PublicIds.newRandom()))
+                    .attach(CustomSemantic.class, customSemantic -> customSemantic.text("Custom Semantic from Registered Factory"));
+        } finally {
+            // The registry is global, so later tests must not see the counting factory even if this test fails
+            SemanticTemplates.register(CustomSemantic.class, originalFactory);
+        }
+
+        composer.commitSession(session);
+        assertEquals(1, createdCount.get(),
+                String.format("Expect the registered factory to create 1 template, but it created %s instead.", createdCount.get()));
+        int expectedComponentsUpdatedCount = 2;
+        int actualComponentsUpdatedCount = session.componentsInSessionCount();
+        assertEquals(expectedComponentsUpdatedCount, actualComponentsUpdatedCount,
+                String.format("Expect %s updated components, but %s were updated instead.", expectedComponentsUpdatedCount, actualComponentsUpdatedCount));
+    }
+
+    @Test
+    public void reuseResetTemplateTest() {
+        Composer composer = new Composer("reuseResetTemplateTest");
+        Session session = composer.open(DEFAULT_STATUS, DEFAULT_TIME, DEFAULT_AUTHOR, DEFAULT_MODULE, DEFAULT_PATH);
+        FullyQualifiedName fullyQualifiedName = new FullyQualifiedName();
+
+        int descriptionCount = 3;
+        for (int i = 0; i < descriptionCount; i++) {
+            session.compose(fullyQualifiedName.reset()
+                    .language(ENGLISH_LANGUAGE)
+                    .text("FQN from Reused Template " + i)
+                    .caseSignificance(DESCRIPTION_NOT_CASE_SENSITIVE), Concept.make(PublicIds.newRandom()));
+        }
+
+        composer.commitSession(session);
+        int expectedComponentsUpdatedCount = descriptionCount;
+        int actualComponentsUpdatedCount = session.componentsInSessionCount();
+        assertEquals(expectedComponentsUpdatedCount, actualComponentsUpdatedCount,
+                String.format("Expect %s updated components, but %s were updated instead.", expectedComponentsUpdatedCount, actualComponentsUpdatedCount));
+    }
+
+    @Test
+    public void createStatedAxiomWithRolesTemplateTest() {
+        Concept referenceConcept = Concept.make(PublicIds.newRandom());
+        Concept findingSite = Concept.make(PublicIds.newRandom());
+        Concept associatedMorphology = Concept.make(PublicIds.newRandom());
+        Concept laterality = Concept.make(PublicIds.newRandom());
+        Composer composer = new Composer("createStatedAxiomWithRolesTemplateTest");
+        Session session = composer.open(DEFAULT_STATUS, DEFAULT_TIME, DEFAULT_AUTHOR, DEFAULT_MODULE, DEFAULT_PATH);
+
+        session.compose(new StatedAxiom()
+                .isA(ROOT_VERTEX)
+                .someRole(laterality, Concept.make(PublicIds.newRandom()))
+                .roleGroup(roleGroup -> roleGroup
+                        .someRole(findingSite, Concept.make(PublicIds.newRandom()))
+                        .someRole(associatedMorphology, Concept.make(PublicIds.newRandom())))
+                .sufficientSet(sufficientSet -> sufficientSet
+                        .isA(ROOT_VERTEX)
+                        .someRole(laterality, Concept.make(PublicIds.newRandom()))), referenceConcept);
+
+        composer.commitSession(session);
+        SemanticEntity<SemanticEntityVersion> statedAxiom = EntityService.get().getEntityFast(
+                SingleSemanticIds.of(EL_PLUS_PLUS_STATED_AXIOMS_PATTERN, referenceConcept).asUuidArray());
+        DiTreeEntity axiomTree = (DiTreeEntity) statedAxiom.versions().get(0).fieldValues().get(0);
+        // Root, necessary set (set, and, isA, role + filler, role group + and + 2 roles + fillers), sufficient set (set, and, isA, role + filler)
+        int expectedVertexCount = 17;
+        int actualVertexCount = axiomTree.vertexMap().size();
+        assertEquals(expectedVertexCount, actualVertexCount,
+                String.format("Expect %s axiom vertices, but %s were written instead.", expectedVertexCount, actualVertexCount));
+    }
+
+    @Test
+    public void deriveStatedNavigationTest() {
+        Concept grandparent = Concept.make(PublicIds.newRandom());
+        Concept parent = Concept.make(PublicIds.newRandom());
+        Concept firstChild = Concept.make(PublicIds.newRandom());
+        Concept secondChild = Concept.make(PublicIds.newRandom());
+        Concept roleType = Concept.make(PublicIds.newRandom());
+        Composer composer = new Composer("deriveStatedNavigationTest");
+        Session session = composer.open(DEFAULT_STATUS, DEFAULT_TIME, DEFAULT_AUTHOR, DEFAULT_MODULE, DEFAULT_PATH)
+                .deriveStatedNavigation();
+
+        session.compose(new StatedAxiom().isA(grandparent), parent);
+        session.compose(new StatedAxiom().isA(parent), firstChild);
+        session.compose((ConceptAssembler conceptAssembler) -> conceptAssembler
+                .concept(secondChild)
+                .attach(StatedAxiom.class, statedAxiom -> statedAxiom
+                        .isA(parent)
+                        .someRole(roleType, firstChild)));
+
+        composer.commitSession(session);
+        // 3 StatedAxioms, and StatedNavigation for grandparent, parent, firstChild, and secondChild
+        int expectedComponentsUpdatedCount = 7;
+        int actualComponentsUpdatedCount = session.componentsInSessionCount();
+        assertEquals(expectedComponentsUpdatedCount, actualComponentsUpdatedCount,
+                String.format("Expect %s updated components, but %s were updated instead.", expectedComponentsUpdatedCount, actualComponentsUpdatedCount));
+
+        IntIdSet parentChildren = (IntIdSet) statedNavigation(parent).fieldValues().get(0);
+        IntIdSet parentParents = (IntIdSet) statedNavigation(parent).fieldValues().get(1);
+        assertTrue(parentChildren.contains(firstChild.nid()) && parentChildren.contains(secondChild.nid()) && parentChildren.size() == 2);
+        assertTrue(parentParents.contains(grandparent.nid()) && parentParents.size() == 1);
+        // Role fillers are not parents
+        IntIdSet firstChildChildren = (IntIdSet) statedNavigation(firstChild).fieldValues().get(0);
+        assertTrue(firstChildChildren.isEmpty());
+    }
+
+    private static SemanticEntityVersion statedNavigation(Concept concept) {
+        SemanticEntity<SemanticEntityVersion> statedNavigation = EntityService.get().getEntityFast(
+                SingleSemanticIds.of(STATED_NAVIGATION_PATTERN, concept).asUuidArray());
+        return statedNavigation.versions().get(0);
+    }
+
+    /**
+     * Composes a stated axiom with a parent and a role group for each of 350,000 Concepts, through one reused
+     * StatedAxiom template, and reports the average cost per axiom. Run with {@code -Dbenchmarks=true}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    public void statedAxiomBenchmark(TestReporter testReporter) {
+        int axiomCount = 350_000;
+        Concept findingSite = Concept.make(PublicIds.newRandom());
+        Concept associatedMorphology = Concept.make(PublicIds.newRandom());
+        Concept bodyStructure = Concept.make(PublicIds.newRandom());
+        Concept morphology = Concept.make(PublicIds.newRandom());
+        Composer composer = new Composer("statedAxiomBenchmark");
+        Session session = composer.open(DEFAULT_STATUS, DEFAULT_TIME, DEFAULT_AUTHOR, DEFAULT_MODULE, DEFAULT_PATH);
+        StatedAxiom statedAxiom = new StatedAxiom();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < axiomCount; i++) {
+            session.compose(statedAxiom.reset()
+                    .isA(ROOT_VERTEX)
+                    .roleGroup(roleGroup -> roleGroup
+                            .someRole(findingSite, bodyStructure)
+                            .someRole(associatedMorphology, morphology)), Concept.make(PublicIds.newRandom()));
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        testReporter.publishEntry("StatedAxiom", String.format("%,d axioms in %,d ms (%,.0f ns/axiom)",
+                axiomCount, elapsedNanos / 1_000_000, (double) elapsedNanos / axiomCount));
+        composer.commitSession(session);
+        assertEquals(axiomCount, session.componentsInSessionCount(),
+                String.format("Expect %s updated components, but %s were updated instead.", axiomCount, session.componentsInSessionCount()));
+    }
+
+    @Test
+    public void internFieldValuesTest() {
+        Composer composer = new Composer("internFieldValuesTest");
+        Session session = composer.open(DEFAULT_STATUS, DEFAULT_TIME, DEFAULT_AUTHOR, DEFAULT_MODULE, DEFAULT_PATH)
+                .internFieldValues();
+
+        int commentCount = 3;
+        List<Object> assignedTexts = new ArrayList<>();
+        for (int i = 0; i < commentCount; i++) {
+            session.compose(new InternedComment(assignedTexts).text(new String("Comment with Interned Field Values")),
+                    Concept.make(PublicIds.newRandom()));
+        }
+
+        composer.commitSession(session);
+        for (Object assignedText : assignedTexts) {
+            assertSame(assignedTexts.getFirst(), assignedText, "Expected equal interned field values to share one instance.");
+        }
+        int expectedComponentsUpdatedCount = commentCount;
+        int actualComponentsUpdatedCount = session.componentsInSessionCount();
+        assertEquals(expectedComponentsUpdatedCount, actualComponentsUpdatedCount,
+                String.format("Expect %s updated components, but %s were updated instead.", expectedComponentsUpdatedCount, actualComponentsUpdatedCount));
+    }
+
+    @Test
+    public void attachPooledTemplatesTest() {
+        Composer composer = new Composer("attachPooledTemplatesTest");
+        Session session = composer.open(DEFAULT_STATUS, DEFAULT_TIME, DEFAULT_AUTHOR, DEFAULT_MODULE, DEFAULT_PATH);
+
+        int conceptCount = 3;
+        for (int i = 0; i < conceptCount; i++) {
+            String term = "Pooled Template " + i;
+            session.compose((ConceptAssembler conceptAssembler) -> conceptAssembler.publicId(PublicIds.newRandom()))
+                    .attach(FullyQualifiedName.class, fqn -> fqn
+                            .language(ENGLISH_LANGUAGE)
+                            .text(term)
+                            .caseSignificance(DESCRIPTION_NOT_CASE_SENSITIVE)
+                            .attach(USDialect.class, usDialect -> usDialect.acceptability(PREFERRED)))
+                    .attach(Synonym.class, synonym -> synonym
+                            .language(ENGLISH_LANGUAGE)
+                            .text(term + " synonym")
+                            .caseSignificance(DESCRIPTION_NOT_CASE_SENSITIVE));
+        }
+
+        composer.commitSession(session);
+        int expectedComponentsUpdatedCount = conceptCount * 4;
+        int actualComponentsUpdatedCount = session.componentsInSessionCount();
+        assertEquals(expectedComponentsUpdatedCount, actualComponentsUpdatedCount,
+                String.format("Expect %s updated components, but %s were updated instead.", expectedComponentsUpdatedCount, actualComponentsUpdatedCount));
+    }
+
+    @Test
+    public void attachReleasesFailedTemplateTest() {
+        Composer composer = new Composer("attachReleasesFailedTemplateTest");
+        Session session = composer.open(DEFAULT_STATUS, DEFAULT_TIME, DEFAULT_AUTHOR, DEFAULT_MODULE, DEFAULT_PATH);
+        Attachable concept = session.compose((ConceptAssembler conceptAssembler) -> conceptAssembler.publicId(PublicIds.newRandom()));
+
+        AtomicReference<Comment> failedComment = new AtomicReference<>();
+        assertThrows(IllegalArgumentException.class, () -> concept.attach(Comment.class, failedComment::set),
+                "Expected a Comment without text to fail validation.");
+        AtomicReference<Comment> reusedComment = new AtomicReference<>();
+        concept.attach(Comment.class, comment -> reusedComment.set(comment.text("Released Template")));
+        assertSame(failedComment.get(), reusedComment.get(), "Expected the template that failed validation to be reset and pooled.");
+
+        composer.commitSession(session);
+        int expectedComponentsUpdatedCount = 2;
+        int actualComponentsUpdatedCount = session.componentsInSessionCount();
+        assertEquals(expectedComponentsUpdatedCount, actualComponentsUpdatedCount,
+                String.format("Expect %s updated components, but %s were updated instead.", expectedComponentsUpdatedCount, actualComponentsUpdatedCount));
+    }
+
+    /**
+     * Compares the ways a template can be created: a cached reflective Constructor, a MethodHandle captured by a
+     * lambda, the Supplier that {@link SemanticTemplates} spins with LambdaMetafactory for an unregistered class, and a
+     * registered constructor reference. Each is timed separately over the same class. Run with
+     * {@code -Dbenchmarks=true}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    public void templateInstantiationBenchmark(TestReporter testReporter) throws ReflectiveOperationException {
+        int iterations = 5_000_000;
+        Constructor<UnregisteredComment> constructor = UnregisteredComment.class.getDeclaredConstructor();
+        MethodHandle constructorHandle = MethodHandles.publicLookup()
+                .findConstructor(UnregisteredComment.class, MethodType.methodType(void.class))
+                .asType(MethodType.methodType(Object.class));
+        Supplier<Object> methodHandleFactory = () -> {
+            try {
+                return (Object) constructorHandle.invokeExact();
+            } catch (Throwable t) {
+                throw new RuntimeException(t);
+            }
+        };
+        Supplier<UnregisteredComment> lambdaFactory = SemanticTemplates.factory(UnregisteredComment.class);
+        Supplier<UnregisteredComment> constructorReference = UnregisteredComment::new;
+
+        double[] nanosPerOp = new double[4];
+        long checksum = 0;
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                checksum += constructor.newInstance().hashCode();
+            }
+            nanosPerOp[0] = (double) (System.nanoTime() - start) / iterations;
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                checksum += methodHandleFactory.get().hashCode();
+            }
+            nanosPerOp[1] = (double) (System.nanoTime() - start) / iterations;
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                checksum += lambdaFactory.get().hashCode();
+            }
+            nanosPerOp[2] = (double) (System.nanoTime() - start) / iterations;
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                checksum += constructorReference.get().hashCode();
+            }
+            nanosPerOp[3] = (double) (System.nanoTime() - start) / iterations;
+        }
+        testReporter.publishEntry("Template instantiation", String.format(
+                "reflective %.1f ns/op, method handle %.1f ns/op, lambda metafactory %.1f ns/op, constructor reference %.1f ns/op (checksum %d)",
+                nanosPerOp[0], nanosPerOp[1], nanosPerOp[2], nanosPerOp[3], checksum));
+    }
+
+    public static class UnregisteredComment extends Comment {}
+
+    /**
+     * A Comment whose text is interned, recording each text it assigns as a field value.
+     */
+    public static class InternedComment extends Comment {
+        private final List<Object> assignedTexts;
+
+        public InternedComment(List<Object> assignedTexts) {
+            this.assignedTexts = assignedTexts;
+        }
+
+        @Override
+        protected ImmutableList<Object> assignFieldValues() {
+            String text = internFieldValue(getText());
+            assignedTexts.add(text);
+            return Lists.immutable.of(text);
+        }
+    }
+
 }
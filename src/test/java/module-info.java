@@ -29,6 +29,8 @@
     requires transitive org.junit.jupiter.api;
     requires org.eclipse.collections.api;
     requires org.eclipse.collections.impl;
+    requires jdk.management;
+    requires java.compiler;
 
     exports dev.ikm.tinkar.composer.test;
     exports dev.ikm.tinkar.composer.test.template;